@@ -1,15 +1,21 @@
 package com.gan.wcare.customer.controller;
 
 import com.gan.wcare.customer.dto.CustomerDTO;
+import com.gan.wcare.customer.dto.KeysetPageDTO;
 import com.gan.wcare.customer.service.CustomerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -33,6 +39,34 @@ public class CustomerController {
         return ResponseEntity.ok(customers);
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Get customers page", description = "Retrieve one page of customers (page, size, sort; id breaks ties)")
+    public ResponseEntity<Page<CustomerDTO>> getCustomersPage(@PageableDefault(size = 50, sort = "id") Pageable pageable) {
+        try {
+            return ResponseEntity.ok(customerService.getCustomersPage(pageable));
+        } catch (RuntimeException e) {
+            log.error("Error getting customers page: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/keyset")
+    @Operation(summary = "Get customers after an id", description = "Retrieve the next customers in id order after afterId (keyset pagination)")
+    public ResponseEntity<KeysetPageDTO<CustomerDTO>> getCustomersAfter(
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(customerService.getCustomersAfter(afterId, size));
+    }
+
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    @Operation(summary = "Stream all customers", description = "Every customer as newline delimited JSON, in id order")
+    public ResponseEntity<StreamingResponseBody> streamAllCustomers() {
+        StreamingResponseBody body = out -> customerService.streamAllCustomers(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get customer by ID", description = "Retrieve customer by ID")
     public ResponseEntity<CustomerDTO> getCustomerById(@PathVariable Long id) {
@@ -41,6 +75,12 @@ public class CustomerController {
                        .orElse(ResponseEntity.notFound().build());
     }
 
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    @Operation(summary = "Check customer exists", description = "200 if the customer exists, 404 otherwise, no body")
+    public ResponseEntity<Void> customerExists(@PathVariable Long id) {
+        return customerService.customerExists(id) ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+    }
+
     @GetMapping("/user/{userId}")
     @Operation(summary = "Get customer by user ID", description = "Retrieve customer by user ID")
     public ResponseEntity<CustomerDTO> getCustomerByUserId(@PathVariable Long userId) {
@@ -0,0 +1,24 @@
+package com.gan.wcare.customer.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Keyset Page Data Transfer Object
+ * One page of a list ordered by id, the next page starts after nextAfterId (null on the last page)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class KeysetPageDTO<T> {
+
+    private List<T> items;
+    private Long nextAfterId;
+}
+
+// Made with Bob
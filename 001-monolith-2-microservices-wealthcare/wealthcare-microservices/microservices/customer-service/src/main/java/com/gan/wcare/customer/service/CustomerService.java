@@ -1,18 +1,31 @@
 package com.gan.wcare.customer.service;
 
 import com.gan.wcare.customer.dto.CustomerDTO;
+import com.gan.wcare.customer.dto.KeysetPageDTO;
 import com.gan.wcare.customer.model.Customer;
 import com.gan.wcare.customer.repository.CustomerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Customer Service - Business logic for customer management
@@ -23,11 +36,14 @@ import java.util.stream.Collectors;
 @Transactional
 public class CustomerService {
 
-    private final CustomerRepository customerRepository;
-    private final WebClient.Builder webClientBuilder;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_FLUSH_ROWS = 500;
 
-    @Value("${services.user-service.url}")
-    private String userServiceUrl;
+    private final CustomerRepository customerRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final WebClient userServiceWebClient;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Get all customers
@@ -39,6 +55,58 @@ public class CustomerService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get one page of customers, id is always the last sort key so pages do not overlap
+     */
+    @Transactional(readOnly = true)
+    public Page<CustomerDTO> getCustomersPage(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        if (sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by("id"));
+        }
+        return customerRepository.findAll(PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort))
+                .map(this::convertToDTO);
+    }
+
+    /**
+     * Get the customers after an id (keyset pagination, no offset scan)
+     */
+    @Transactional(readOnly = true)
+    public KeysetPageDTO<CustomerDTO> getCustomersAfter(Long afterId, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<CustomerDTO> items = customerRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit)).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        Long nextAfterId = items.size() == limit ? items.get(items.size() - 1).getId() : null;
+        return KeysetPageDTO.<CustomerDTO>builder()
+                .items(items)
+                .nextAfterId(nextAfterId)
+                .build();
+    }
+
+    /**
+     * Write every customer as one JSON line, memory does not grow with the table
+     */
+    @Transactional(readOnly = true)
+    public long streamAllCustomers(OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<Customer> customers = customerRepository.streamAll()) {
+            Iterator<Customer> iterator = customers.iterator();
+            while (iterator.hasNext()) {
+                Customer customer = iterator.next();
+                out.write(objectMapper.writeValueAsBytes(convertToDTO(customer)));
+                out.write('\n');
+                entityManager.detach(customer);
+                if (++count % STREAM_FLUSH_ROWS == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        log.info("Streamed {} customers", count);
+        return count;
+    }
+
     /**
      * Get customer by ID
      */
@@ -48,6 +116,14 @@ public class CustomerService {
                 .map(this::convertToDTO);
     }
 
+    /**
+     * Check customer exists, without loading it
+     */
+    @Transactional(readOnly = true)
+    public boolean customerExists(Long id) {
+        return customerRepository.existsById(id);
+    }
+
     /**
      * Get customer by user ID
      */
@@ -70,9 +146,20 @@ public class CustomerService {
     /**
      * Create new customer
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CustomerDTO createCustomer(CustomerDTO customerDTO) {
         log.info("Creating new customer for user ID: {}", customerDTO.getUserId());
 
+        Customer savedCustomer = transactionTemplate.execute(status -> saveNewCustomer(customerDTO));
+
+        // Update user service with customer ID, after commit so no database connection waits on it
+        updateUserServiceWithCustomerId(savedCustomer.getUserId(), savedCustomer.getId());
+
+        log.info("Customer created successfully with ID: {}", savedCustomer.getId());
+        return convertToDTO(savedCustomer);
+    }
+
+    private Customer saveNewCustomer(CustomerDTO customerDTO) {
         // Check if customer already exists for this user
         if (customerRepository.existsByUserId(customerDTO.getUserId())) {
             throw new RuntimeException("Customer already exists for this user");
@@ -85,13 +172,7 @@ public class CustomerService {
         }
 
         Customer customer = convertToEntity(customerDTO);
-        Customer savedCustomer = customerRepository.save(customer);
-
-        // Update user service with customer ID
-        updateUserServiceWithCustomerId(savedCustomer.getUserId(), savedCustomer.getId());
-
-        log.info("Customer created successfully with ID: {}", savedCustomer.getId());
-        return convertToDTO(savedCustomer);
+        return customerRepository.save(customer);
     }
 
     /**
@@ -162,9 +243,9 @@ public class CustomerService {
      */
     private void updateUserServiceWithCustomerId(Long userId, Long customerId) {
         try {
-            webClientBuilder.build()
+            userServiceWebClient
                     .put()
-                    .uri(userServiceUrl + "/api/users/" + userId + "/profile?role=CUSTOMER&profileId=" + customerId)
+                    .uri("/api/users/{userId}/profile?role=CUSTOMER&profileId={customerId}", userId, customerId)
                     .retrieve()
                     .bodyToMono(Void.class)
                     .block();
@@ -0,0 +1,18 @@
+package com.gan.wcare.dashboard;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Dashboard Service Application
+ * Backend for frontend: composes the dashboard from user, customer, goal and investment services in one request
+ */
+@SpringBootApplication
+public class DashboardServiceApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(DashboardServiceApplication.class, args);
+    }
+}
+
+// Made with Bob
@@ -0,0 +1,36 @@
+package com.gan.wcare.dashboard.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Web Configuration for CORS (Cross-Origin Resource Sharing)
+ * Allows React frontend to communicate with backend APIs
+ */
+@Configuration
+public class WebConfig {
+
+    @Bean
+    public WebFluxConfigurer corsConfigurer() {
+        return new WebFluxConfigurer() {
+            @Override
+            public void addCorsMappings(CorsRegistry registry) {
+                registry.addMapping("/**")
+                        .allowedOrigins(
+                            "http://localhost:3000",           // Local React development
+                            "http://localhost:5173",           // Vite development server
+                            "https://*.cloud.ibm.com",         // IBM Cloud/Code Engine
+                            "https://*.mybluemix.net"          // IBM Cloud legacy domains
+                        )
+                        .allowedMethods("GET", "OPTIONS")
+                        .allowedHeaders("*")
+                        .allowCredentials(true)
+                        .maxAge(3600);
+            }
+        };
+    }
+}
+
+// Made with Bob
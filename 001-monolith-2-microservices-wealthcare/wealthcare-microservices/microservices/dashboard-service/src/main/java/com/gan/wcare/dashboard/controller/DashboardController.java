@@ -0,0 +1,47 @@
+package com.gan.wcare.dashboard.controller;
+
+import com.gan.wcare.dashboard.dto.DashboardDTO;
+import com.gan.wcare.dashboard.service.DashboardService;
+import com.gan.wcare.security.JwtPrincipal;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Dashboard Controller
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Dashboard", description = "Dashboard aggregation API (backend for frontend)")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    @GetMapping
+    @Operation(summary = "Get dashboard", description = "The caller's user (from the token), system totals and, for a customer "
+            + "or wealth manager (profileId), goals with progress and portfolio summary, in one call. "
+            + "Sections whose service failed are listed in unavailable")
+    public Mono<DashboardDTO> getDashboard(
+            @RequestParam(required = false) Long profileId,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            ServerWebExchange exchange) {
+        // User and role come from the verified token only; no token, no calls to the other services
+        JwtPrincipal principal = exchange.getAttribute(JwtPrincipal.ATTRIBUTE);
+        if (principal == null || principal.userId() == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED));
+        }
+        log.debug("GET /api/dashboard - user {} ({} {})", principal.userId(), principal.role(), profileId);
+        return dashboardService.getDashboard(principal.userId(), principal.role(), profileId, authorization);
+    }
+}
+
+// Made with Bob
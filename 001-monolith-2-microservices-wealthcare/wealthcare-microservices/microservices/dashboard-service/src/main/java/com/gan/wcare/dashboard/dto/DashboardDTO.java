@@ -0,0 +1,38 @@
+package com.gan.wcare.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Dashboard Data Transfer Object
+ * Everything the dashboard page shows, composed from the four services.
+ * A section whose service failed or timed out is null and named in unavailable (partial is then true).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardDTO {
+
+    private UserDTO user;
+
+    // Totals across the system
+    private Long customerCount;
+    private Long goalCount;
+    private Long investmentCount;
+
+    // Goals of the customer or wealth manager, with progress
+    private List<GoalDTO> goals;
+
+    // Portfolio of the customer
+    private PortfolioSummaryDTO portfolioSummary;
+
+    private List<String> unavailable;
+    private boolean partial;
+}
+
+// Made with Bob
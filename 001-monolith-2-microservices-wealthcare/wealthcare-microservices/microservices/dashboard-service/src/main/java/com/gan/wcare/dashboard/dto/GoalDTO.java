@@ -0,0 +1,34 @@
+package com.gan.wcare.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Goal Data Transfer Object
+ * Goal with its current amount and progress, as returned by Goal Service
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GoalDTO {
+
+    private Long id;
+    private Long customerId;
+    private Long wealthManagerId;
+    private String goalReference;
+    private String goalDescription;
+    private LocalDate startDate;
+    private LocalDate targetDate;
+    private Double targetAmount;
+
+    private Double currentAmount;
+    private Double progressPercentage;
+    private Long daysRemaining;
+}
+
+// Made with Bob
@@ -0,0 +1,21 @@
+package com.gan.wcare.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Page Total Data Transfer Object
+ * Total row count of a /page response, the only part of it the dashboard reads
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PageTotalDTO {
+
+    private Long totalElements;
+}
+
+// Made with Bob
@@ -0,0 +1,31 @@
+package com.gan.wcare.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Portfolio Summary Data Transfer Object
+ * Aggregated portfolio of a customer, as returned by Investment Service
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PortfolioSummaryDTO {
+
+    private Long customerId;
+    private Integer totalInvestments;
+    private BigDecimal totalInvested;
+    private BigDecimal currentValue;
+    private BigDecimal totalGainLoss;
+    private BigDecimal totalGainLossPercentage;
+    private Map<String, BigDecimal> investmentsByType;
+    private Map<String, Integer> countByType;
+}
+
+// Made with Bob
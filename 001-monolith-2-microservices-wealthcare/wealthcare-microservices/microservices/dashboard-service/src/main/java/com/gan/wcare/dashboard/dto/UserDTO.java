@@ -0,0 +1,29 @@
+package com.gan.wcare.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * User Data Transfer Object
+ * User account as returned by User Service
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserDTO {
+
+    private Long id;
+    private String username;
+    private String emailId;
+    private String role;
+    private Boolean active;
+
+    private Long businessManagerId;
+    private Long wealthManagerId;
+    private Long customerId;
+}
+
+// Made with Bob
@@ -0,0 +1,200 @@
+package com.gan.wcare.dashboard.service;
+
+import com.gan.wcare.dashboard.dto.DashboardDTO;
+import com.gan.wcare.dashboard.dto.GoalDTO;
+import com.gan.wcare.dashboard.dto.PageTotalDTO;
+import com.gan.wcare.dashboard.dto.PortfolioSummaryDTO;
+import com.gan.wcare.dashboard.dto.UserDTO;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Dashboard Service - Composes the dashboard from the other services
+ * Every section is requested at once, so a dashboard takes as long as its slowest service, not the sum of them.
+ * Each call has its own timeout; a failed call leaves its section out instead of failing the dashboard.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardService {
+
+    private static final ParameterizedTypeReference<List<GoalDTO>> GOAL_LIST = new ParameterizedTypeReference<>() {
+    };
+
+    private final WebClient userServiceWebClient;
+    private final WebClient customerServiceWebClient;
+    private final WebClient goalServiceWebClient;
+    private final WebClient investmentServiceWebClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${services.user-service.timeout:1s}")
+    private Duration userServiceTimeout;
+
+    @Value("${services.customer-service.timeout:1s}")
+    private Duration customerServiceTimeout;
+
+    @Value("${services.goal-service.timeout:2s}")
+    private Duration goalServiceTimeout;
+
+    @Value("${services.investment-service.timeout:1500ms}")
+    private Duration investmentServiceTimeout;
+
+    @Value("${dashboard.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${dashboard.cache.ttl:5s}")
+    private Duration cacheTtl;
+
+    private AsyncCache<DashboardKey, DashboardDTO> dashboardCache;
+
+    // One cache entry per caller (token) and scope, so a dashboard is never served to another caller
+    private record DashboardKey(Long userId, String role, Long profileId, String authorization) {
+    }
+
+    @PostConstruct
+    public void init() {
+        dashboardCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<DashboardKey, DashboardDTO>() {
+                    @Override
+                    public long expireAfterCreate(DashboardKey key, DashboardDTO dashboard, long currentTime) {
+                        // Callers already waiting share a partial dashboard, later ones try again
+                        return dashboard.isPartial() ? 0 : cacheTtl.toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(DashboardKey key, DashboardDTO dashboard, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, dashboard, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(DashboardKey key, DashboardDTO dashboard, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, dashboardCache, "dashboard");
+    }
+
+    /**
+     * Get the dashboard of a user; role and profileId (customer or wealth manager id) scope its goals and portfolio
+     */
+    public Mono<DashboardDTO> getDashboard(Long userId, String role, Long profileId, String authorization) {
+        DashboardKey key = new DashboardKey(userId, role, profileId, authorization);
+        // Cancelling one caller must not cancel the dashboard other callers wait for
+        return Mono.fromFuture(() -> dashboardCache.get(key, (k, executor) -> loadDashboard(k).toFuture()), true);
+    }
+
+    private Mono<DashboardDTO> loadDashboard(DashboardKey key) {
+        log.info("Loading dashboard for user {} ({} {})", key.userId(), key.role(), key.profileId());
+        List<String> unavailable = new CopyOnWriteArrayList<>();
+
+        Mono<Optional<UserDTO>> user = section("user", userServiceTimeout, unavailable,
+                get(userServiceWebClient, key, "/api/users/{id}", key.userId())
+                        .bodyToMono(UserDTO.class));
+        Mono<Optional<Long>> customerCount = section("customerCount", customerServiceTimeout, unavailable,
+                count(customerServiceWebClient, key, "/api/customers/page?size=1"));
+        Mono<Optional<Long>> goalCount = section("goalCount", goalServiceTimeout, unavailable,
+                count(goalServiceWebClient, key, "/api/goals/page?size=1"));
+        Mono<Optional<Long>> investmentCount = section("investmentCount", investmentServiceTimeout, unavailable,
+                count(investmentServiceWebClient, key, "/api/investments/page?size=1"));
+        Mono<Optional<List<GoalDTO>>> goals = goals(key, unavailable);
+        Mono<Optional<PortfolioSummaryDTO>> portfolioSummary = portfolioSummary(key, unavailable);
+
+        return Mono.zip(user, customerCount, goalCount, investmentCount, goals, portfolioSummary)
+                .map(sections -> DashboardDTO.builder()
+                        .user(sections.getT1().orElse(null))
+                        .customerCount(sections.getT2().orElse(null))
+                        .goalCount(sections.getT3().orElse(null))
+                        .investmentCount(sections.getT4().orElse(null))
+                        .goals(sections.getT5().orElse(null))
+                        .portfolioSummary(sections.getT6().orElse(null))
+                        .unavailable(new ArrayList<>(unavailable))
+                        .partial(!unavailable.isEmpty())
+                        .build());
+    }
+
+    /**
+     * Goals with progress: of the customer for a customer, of the managed customers for a wealth manager
+     */
+    private Mono<Optional<List<GoalDTO>>> goals(DashboardKey key, List<String> unavailable) {
+        String uri;
+        if (key.profileId() != null && "CUSTOMER".equals(key.role())) {
+            uri = "/api/goals/customer/{id}/progress";
+        } else if (key.profileId() != null && "WEALTH_MANAGER".equals(key.role())) {
+            uri = "/api/goals/wealth-manager/{id}/progress";
+        } else {
+            return Mono.just(Optional.empty());
+        }
+        return section("goals", goalServiceTimeout, unavailable,
+                get(goalServiceWebClient, key, uri, key.profileId()).bodyToMono(GOAL_LIST));
+    }
+
+    /**
+     * Portfolio summary, for a customer only
+     */
+    private Mono<Optional<PortfolioSummaryDTO>> portfolioSummary(DashboardKey key, List<String> unavailable) {
+        if (key.profileId() == null || !"CUSTOMER".equals(key.role())) {
+            return Mono.just(Optional.empty());
+        }
+        return section("portfolioSummary", investmentServiceTimeout, unavailable,
+                get(investmentServiceWebClient, key, "/api/investments/customer/{id}/portfolio-summary", key.profileId())
+                        .bodyToMono(PortfolioSummaryDTO.class));
+    }
+
+    private Mono<Long> count(WebClient webClient, DashboardKey key, String uri) {
+        return get(webClient, key, uri)
+                .bodyToMono(PageTotalDTO.class)
+                .map(PageTotalDTO::getTotalElements);
+    }
+
+    /**
+     * GET on behalf of the caller: their Authorization header is passed on
+     */
+    private WebClient.ResponseSpec get(WebClient webClient, DashboardKey key, String uri, Object... uriVariables) {
+        return webClient.get()
+                .uri(uri, uriVariables)
+                .headers(headers -> {
+                    if (key.authorization() != null) {
+                        headers.set(HttpHeaders.AUTHORIZATION, key.authorization());
+                    }
+                })
+                .retrieve();
+    }
+
+    /**
+     * One dashboard section: its value, or empty (and named in unavailable) if the call failed or timed out
+     */
+    private <T> Mono<Optional<T>> section(String name, Duration timeout, List<String> unavailable, Mono<T> call) {
+        return call
+                .timeout(timeout)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(e -> {
+                    log.warn("Dashboard section {} unavailable: {}", name, e.toString());
+                    unavailable.add(name);
+                    return Mono.just(Optional.empty());
+                });
+    }
+}
+
+// Made with Bob
@@ -1,9 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import Navbar from '../components/Navbar';
 import { useAuth } from '../context/AuthContext';
-import customerService from '../services/customerService';
-import goalService from '../services/goalService';
-import investmentService from '../services/investmentService';
+import dashboardService from '../services/dashboardService';
 import '../styles/Dashboard.css';
 
 const Dashboard = () => {
@@ -21,16 +19,13 @@ const Dashboard = () => {
 
   const loadDashboardData = async () => {
     try {
-      const [customers, goals, investments] = await Promise.all([
-        customerService.getAllCustomers(),
-        goalService.getAllGoals(),
-        investmentService.getAllInvestments()
-      ]);
+      // One call: the dashboard service gathers the counts from all services at once
+      const dashboard = await dashboardService.getDashboard(user?.profileId);
 
       setStats({
-        customers: customers.length,
-        goals: goals.length,
-        investments: investments.length
+        customers: dashboard.customerCount ?? 0,
+        goals: dashboard.goalCount ?? 0,
+        investments: dashboard.investmentCount ?? 0
       });
     } catch (error) {
       console.error('Error loading dashboard data:', error);
@@ -19,7 +19,7 @@ const Login = () => {
 
     try {
       const response = await authService.login(username, password);
-      login(response.token, response.user);
+      login(response.token, response);
       navigate('/dashboard');
     } catch (err) {
       setError(err.response?.data?.message || 'Invalid username or password');
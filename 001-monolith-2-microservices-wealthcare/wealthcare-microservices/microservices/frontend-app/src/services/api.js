@@ -4,6 +4,7 @@ const USER_SERVICE_URL = process.env.REACT_APP_USER_SERVICE_URL || 'http://local
 const CUSTOMER_SERVICE_URL = process.env.REACT_APP_CUSTOMER_SERVICE_URL || 'http://localhost:8082';
 const GOAL_SERVICE_URL = process.env.REACT_APP_GOAL_SERVICE_URL || 'http://localhost:8083';
 const INVESTMENT_SERVICE_URL = process.env.REACT_APP_INVESTMENT_SERVICE_URL || 'http://localhost:8084';
+const DASHBOARD_SERVICE_URL = process.env.REACT_APP_DASHBOARD_SERVICE_URL || 'http://localhost:8086';
 
 // Create axios instances for each service
 const userApi = axios.create({
@@ -34,6 +35,13 @@ const investmentApi = axios.create({
   }
 });
 
+const dashboardApi = axios.create({
+  baseURL: DASHBOARD_SERVICE_URL,
+  headers: {
+    'Content-Type': 'application/json'
+  }
+});
+
 // Add token to requests
 const addAuthToken = (config) => {
   const token = localStorage.getItem('token');
@@ -44,7 +52,7 @@ const addAuthToken = (config) => {
 };
 
 // Add interceptors to all instances
-[userApi, customerApi, goalApi, investmentApi].forEach(api => {
+[userApi, customerApi, goalApi, investmentApi, dashboardApi].forEach(api => {
   api.interceptors.request.use(addAuthToken);
   
   api.interceptors.response.use(
@@ -61,4 +69,4 @@ const addAuthToken = (config) => {
   );
 });
 
-export { userApi, customerApi, goalApi, investmentApi };
\ No newline at end of file
+export { userApi, customerApi, goalApi, investmentApi, dashboardApi };
\ No newline at end of file
@@ -0,0 +1,12 @@
+import { dashboardApi } from './api';
+
+const dashboardService = {
+  getDashboard: async (profileId) => {
+    const response = await dashboardApi.get('/api/dashboard', {
+      params: { profileId }
+    });
+    return response.data;
+  }
+};
+
+export default dashboardService;
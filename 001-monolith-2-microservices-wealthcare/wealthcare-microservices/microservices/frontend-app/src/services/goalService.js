@@ -16,6 +16,16 @@ const goalService = {
     return response.data;
   },
 
+  getGoalsWithProgressByCustomerId: async (customerId) => {
+    const response = await goalApi.get(`/api/goals/customer/${customerId}/progress`);
+    return response.data;
+  },
+
+  getGoalsWithProgressByWealthManagerId: async (wealthManagerId) => {
+    const response = await goalApi.get(`/api/goals/wealth-manager/${wealthManagerId}/progress`);
+    return response.data;
+  },
+
   createGoal: async (goalData) => {
     const response = await goalApi.post('/api/goals', goalData);
     return response.data;
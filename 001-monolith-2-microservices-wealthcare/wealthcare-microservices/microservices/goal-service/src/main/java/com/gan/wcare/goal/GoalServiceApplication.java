@@ -2,9 +2,7 @@ package com.gan.wcare.goal;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
-import org.springframework.web.reactive.function.client.WebClient;
 
 /**
  * Goal Service Application
@@ -17,11 +15,6 @@ public class GoalServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(GoalServiceApplication.class, args);
     }
-
-    @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
-    }
 }
 
 // Made with Bob
@@ -0,0 +1,96 @@
+package com.gan.wcare.goal.config;
+
+import com.gan.wcare.security.ServiceTokenProvider;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebClient Configuration
+ * One shared WebClient per downstream service, each with its own pooled keep-alive connections and timeouts.
+ * Pool usage is published as reactor.netty.connection.provider.* metrics, call latency as http.client.requests.
+ * Calls carry this service's token (ServiceTokenProvider) unless they set an Authorization header themselves.
+ */
+@Configuration
+public class WebClientConfig implements DisposableBean {
+
+    @Autowired
+    private ServiceTokenProvider serviceTokenProvider;
+
+    @Value("${services.http-client.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${services.http-client.pending-acquire-timeout:2s}")
+    private Duration pendingAcquireTimeout;
+
+    @Value("${services.http-client.max-idle-time:30s}")
+    private Duration maxIdleTime;
+
+    @Value("${services.http-client.max-life-time:5m}")
+    private Duration maxLifeTime;
+
+    @Value("${services.http-client.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${services.http-client.response-timeout:3s}")
+    private Duration responseTimeout;
+
+    private final List<ConnectionProvider> connectionProviders = new CopyOnWriteArrayList<>();
+
+    /**
+     * WebClient for Investment Service
+     */
+    @Bean
+    public WebClient investmentServiceWebClient(WebClient.Builder webClientBuilder,
+                                                @Value("${services.investment-service.url}") String investmentServiceUrl) {
+        return createWebClient(webClientBuilder, "investment-service", investmentServiceUrl);
+    }
+
+    private WebClient createWebClient(WebClient.Builder webClientBuilder, String name, String baseUrl) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder(name)
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(maxIdleTime)
+                .metrics(true)
+                .build();
+        connectionProviders.add(connectionProvider);
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(responseTimeout)
+                .doOnConnected(connection -> connection
+                        .addHandlerLast(new ReadTimeoutHandler(responseTimeout.toMillis(), TimeUnit.MILLISECONDS))
+                        .addHandlerLast(new WriteTimeoutHandler(responseTimeout.toMillis(), TimeUnit.MILLISECONDS)));
+
+        return webClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(serviceTokenProvider)
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        connectionProviders.forEach(ConnectionProvider::dispose);
+    }
+}
+
+// Made with Bob
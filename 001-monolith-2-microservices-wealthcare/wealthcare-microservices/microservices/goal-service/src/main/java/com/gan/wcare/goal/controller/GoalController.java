@@ -1,15 +1,21 @@
 package com.gan.wcare.goal.controller;
 
 import com.gan.wcare.goal.dto.GoalDTO;
+import com.gan.wcare.goal.dto.KeysetPageDTO;
 import com.gan.wcare.goal.service.GoalService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -33,6 +39,34 @@ public class GoalController {
         return ResponseEntity.ok(goals);
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Get goals page", description = "Retrieve one page of goals (page, size, sort; id breaks ties)")
+    public ResponseEntity<Page<GoalDTO>> getGoalsPage(@PageableDefault(size = 50, sort = "id") Pageable pageable) {
+        try {
+            return ResponseEntity.ok(goalService.getGoalsPage(pageable));
+        } catch (RuntimeException e) {
+            log.error("Error getting goals page: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/keyset")
+    @Operation(summary = "Get goals after an id", description = "Retrieve the next goals in id order after afterId (keyset pagination)")
+    public ResponseEntity<KeysetPageDTO<GoalDTO>> getGoalsAfter(
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(goalService.getGoalsAfter(afterId, size));
+    }
+
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    @Operation(summary = "Stream all goals", description = "Every goal as newline delimited JSON, in id order")
+    public ResponseEntity<StreamingResponseBody> streamAllGoals() {
+        StreamingResponseBody body = out -> goalService.streamAllGoals(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get goal by ID", description = "Retrieve goal by ID")
     public ResponseEntity<GoalDTO> getGoalById(@PathVariable Long id) {
@@ -41,6 +75,12 @@ public class GoalController {
                    .orElse(ResponseEntity.notFound().build());
     }
 
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    @Operation(summary = "Check goal exists", description = "200 if the goal exists, 404 otherwise, no body")
+    public ResponseEntity<Void> goalExists(@PathVariable Long id) {
+        return goalService.goalExists(id) ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+    }
+
     @GetMapping("/customer/{customerId}")
     @Operation(summary = "Get goals by customer", description = "Retrieve all goals for a customer")
     public ResponseEntity<List<GoalDTO>> getGoalsByCustomerId(@PathVariable Long customerId) {
@@ -48,6 +88,20 @@ public class GoalController {
         return ResponseEntity.ok(goals);
     }
 
+    @GetMapping("/customer/{customerId}/progress")
+    @Operation(summary = "Get goals with progress by customer", description = "Retrieve all goals for a customer with their current amount and progress")
+    public ResponseEntity<List<GoalDTO>> getGoalsWithProgressByCustomerId(@PathVariable Long customerId) {
+        List<GoalDTO> goals = goalService.getGoalsWithProgressByCustomerId(customerId);
+        return ResponseEntity.ok(goals);
+    }
+
+    @GetMapping("/wealth-manager/{wealthManagerId}/progress")
+    @Operation(summary = "Get goals with progress by wealth manager", description = "Retrieve all goals managed by a wealth manager with their current amount and progress")
+    public ResponseEntity<List<GoalDTO>> getGoalsWithProgressByWealthManagerId(@PathVariable Long wealthManagerId) {
+        List<GoalDTO> goals = goalService.getGoalsWithProgressByWealthManagerId(wealthManagerId);
+        return ResponseEntity.ok(goals);
+    }
+
     @GetMapping("/wealth-manager/{wealthManagerId}")
     @Operation(summary = "Get goals by wealth manager", description = "Retrieve all goals managed by a wealth manager")
     public ResponseEntity<List<GoalDTO>> getGoalsByWealthManagerId(@PathVariable Long wealthManagerId) {
@@ -0,0 +1,26 @@
+package com.gan.wcare.goal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Goal Value Data Transfer Object
+ * Current value of the active investments linked to one goal, as returned by Investment Service
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GoalValueDTO {
+
+    private Long goalId;
+    private Integer holdings;
+    private BigDecimal totalInvested;
+    private BigDecimal currentValue;
+}
+
+// Made with Bob
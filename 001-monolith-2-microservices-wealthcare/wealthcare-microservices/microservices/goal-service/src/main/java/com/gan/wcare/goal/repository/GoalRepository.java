@@ -1,10 +1,16 @@
 package com.gan.wcare.goal.repository;
 
 import com.gan.wcare.goal.model.Goal;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Goal Repository
@@ -12,6 +18,21 @@ import java.util.List;
 @Repository
 public interface GoalRepository extends JpaRepository<Goal, Long> {
 
+    /**
+     * Keyset page: the goals after an id, in id order
+     */
+    List<Goal> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Every goal in id order, fetched from the cursor in chunks, to be used inside a read-only transaction
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT g FROM Goal g ORDER BY g.id")
+    Stream<Goal> streamAll();
+
     List<Goal> findByCustomerId(Long customerId);
 
     List<Goal> findByWealthManagerId(Long wealthManagerId);
@@ -1,18 +1,35 @@
 package com.gan.wcare.goal.service;
 
 import com.gan.wcare.goal.dto.GoalDTO;
+import com.gan.wcare.goal.dto.GoalValueDTO;
+import com.gan.wcare.goal.dto.KeysetPageDTO;
 import com.gan.wcare.goal.model.Goal;
 import com.gan.wcare.goal.repository.GoalRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Goal Service - Business logic for goal management
@@ -23,7 +40,15 @@ import java.util.stream.Collectors;
 @Transactional
 public class GoalService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_FLUSH_ROWS = 500;
+    // Largest goal id list Investment Service values in one call
+    private static final int GOAL_VALUES_BATCH_SIZE = 1000;
+
     private final GoalRepository goalRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final WebClient investmentServiceWebClient;
 
     /**
      * Get all goals
@@ -35,6 +60,58 @@ public class GoalService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get one page of goals, id is always the last sort key so pages do not overlap
+     */
+    @Transactional(readOnly = true)
+    public Page<GoalDTO> getGoalsPage(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        if (sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by("id"));
+        }
+        return goalRepository.findAll(PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort))
+                .map(this::convertToDTO);
+    }
+
+    /**
+     * Get the goals after an id (keyset pagination, no offset scan)
+     */
+    @Transactional(readOnly = true)
+    public KeysetPageDTO<GoalDTO> getGoalsAfter(Long afterId, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<GoalDTO> items = goalRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit)).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        Long nextAfterId = items.size() == limit ? items.get(items.size() - 1).getId() : null;
+        return KeysetPageDTO.<GoalDTO>builder()
+                .items(items)
+                .nextAfterId(nextAfterId)
+                .build();
+    }
+
+    /**
+     * Write every goal as one JSON line, memory does not grow with the table
+     */
+    @Transactional(readOnly = true)
+    public long streamAllGoals(OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<Goal> goals = goalRepository.streamAll()) {
+            Iterator<Goal> iterator = goals.iterator();
+            while (iterator.hasNext()) {
+                Goal goal = iterator.next();
+                out.write(objectMapper.writeValueAsBytes(convertToDTO(goal)));
+                out.write('\n');
+                entityManager.detach(goal);
+                if (++count % STREAM_FLUSH_ROWS == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        log.info("Streamed {} goals", count);
+        return count;
+    }
+
     /**
      * Get goal by ID
      */
@@ -44,6 +121,14 @@ public class GoalService {
                 .map(this::convertToDTO);
     }
 
+    /**
+     * Check goal exists, without loading it
+     */
+    @Transactional(readOnly = true)
+    public boolean goalExists(Long id) {
+        return goalRepository.existsById(id);
+    }
+
     /**
      * Get goals by customer ID
      */
@@ -64,6 +149,22 @@ public class GoalService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get goals by customer ID, with progress from one Investment Service call
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<GoalDTO> getGoalsWithProgressByCustomerId(Long customerId) {
+        return withProgress(goalRepository.findByCustomerId(customerId));
+    }
+
+    /**
+     * Get goals by wealth manager ID, with progress from one Investment Service call (per 1000 goals)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<GoalDTO> getGoalsWithProgressByWealthManagerId(Long wealthManagerId) {
+        return withProgress(goalRepository.findByWealthManagerId(wealthManagerId));
+    }
+
     /**
      * Create new goal
      */
@@ -122,19 +223,62 @@ public class GoalService {
                 .orElseThrow(() -> new RuntimeException("Goal not found"));
 
         GoalDTO dto = convertToDTO(goal);
-        dto.setCurrentAmount(currentAmount);
+        applyProgress(dto, currentAmount);
+        return dto;
+    }
 
-        if (goal.getTargetAmount() != null && goal.getTargetAmount() > 0) {
-            double progress = (currentAmount / goal.getTargetAmount()) * 100;
-            dto.setProgressPercentage(Math.min(progress, 100.0));
-        }
+    /**
+     * Convert goals to DTOs with progress; without Investment Service the progress is left empty
+     */
+    private List<GoalDTO> withProgress(List<Goal> goals) {
+        List<Long> goalIds = goals.stream()
+                .map(Goal::getId)
+                .collect(Collectors.toList());
+        Optional<Map<Long, Double>> currentAmounts = fetchCurrentAmounts(goalIds);
 
-        if (goal.getTargetDate() != null) {
-            long daysRemaining = ChronoUnit.DAYS.between(LocalDate.now(), goal.getTargetDate());
-            dto.setDaysRemaining(Math.max(daysRemaining, 0));
+        return goals.stream()
+                .map(goal -> {
+                    GoalDTO dto = convertToDTO(goal);
+                    currentAmounts.ifPresent(amounts -> applyProgress(dto, amounts.getOrDefault(goal.getId(), 0.0)));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Current value of each goal's active investments, summed by Investment Service
+     */
+    private Optional<Map<Long, Double>> fetchCurrentAmounts(List<Long> goalIds) {
+        if (goalIds.isEmpty()) {
+            return Optional.of(Map.of());
         }
+        try {
+            int batches = (goalIds.size() + GOAL_VALUES_BATCH_SIZE - 1) / GOAL_VALUES_BATCH_SIZE;
+            Map<Long, Double> currentAmounts = Flux.range(0, batches)
+                    .map(batch -> goalIds.subList(batch * GOAL_VALUES_BATCH_SIZE,
+                            Math.min(goalIds.size(), (batch + 1) * GOAL_VALUES_BATCH_SIZE)))
+                    .flatMap(batch -> investmentServiceWebClient
+                            .post()
+                            .uri("/api/investments/goal-values")
+                            .bodyValue(batch)
+                            .retrieve()
+                            .bodyToFlux(GoalValueDTO.class))
+                    .collectMap(GoalValueDTO::getGoalId, value -> value.getCurrentValue().doubleValue())
+                    .block();
+            return Optional.of(currentAmounts);
+        } catch (Exception e) {
+            log.error("Failed to get goal values from investment service: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
 
-        return dto;
+    private void applyProgress(GoalDTO dto, Double currentAmount) {
+        dto.setCurrentAmount(currentAmount);
+
+        if (dto.getTargetAmount() != null && dto.getTargetAmount() > 0) {
+            double progress = (currentAmount / dto.getTargetAmount()) * 100;
+            dto.setProgressPercentage(Math.min(progress, 100.0));
+        }
     }
 
     /**
@@ -1,28 +1,29 @@
 package com.gan.wcare.investment;
 
+import com.gan.wcare.investment.repository.ReactiveInvestmentRepository;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Investment Service Application
  * Manages investment portfolios, transactions, and performance tracking
  */
 @SpringBootApplication
+@EnableCaching
+@EnableScheduling
+// The R2DBC repository of the reactive profile is not a JPA one
+@EnableJpaRepositories(excludeFilters = @ComponentScan.Filter(
+        type = FilterType.ASSIGNABLE_TYPE, classes = ReactiveInvestmentRepository.class))
 public class InvestmentServiceApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(InvestmentServiceApplication.class, args);
     }
-
-    /**
-     * WebClient bean for inter-service communication
-     */
-    @Bean
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
-    }
 }
 
 // Made with Bob
@@ -0,0 +1,30 @@
+package com.gan.wcare.investment.benchmark;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Benchmark Database
+ * The benchmarks delete and insert rows, so they refuse to run unless the datasource is an in-memory H2 database
+ * (their profiles set one in application.yml).
+ */
+final class BenchmarkDatabase {
+
+    private static final String IN_MEMORY_H2 = "jdbc:h2:mem:";
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Fail unless the datasource is an in-memory H2 database
+     */
+    static void requireInMemory(JdbcTemplate jdbcTemplate, String benchmark) {
+        String url = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getURL());
+        if (url == null || !url.startsWith(IN_MEMORY_H2)) {
+            throw new IllegalStateException(benchmark + " deletes and inserts investments, it only runs on an "
+                    + "in-memory H2 database (" + IN_MEMORY_H2 + "...), not on " + url);
+        }
+    }
+}
+
+// Made with Bob
@@ -0,0 +1,189 @@
+package com.gan.wcare.investment.benchmark;
+
+import com.gan.wcare.security.ServiceTokenProvider;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Investment Load Test
+ * Creates investments over HTTP at each benchmark.load.concurrency-levels, against this instance, while
+ * Customer Service and Goal Service are replaced by a local stub answering after benchmark.load.downstream-delay.
+ * Every request uses a new customer and goal, so both validations reach the slow stub.
+ * Throughput, latency, live threads and heap are logged per level; run it once per build to compare:
+ *   --spring.profiles.active=load-test            (blocking: MVC, JPA, platform threads)
+ *   --spring.profiles.active=load-test --spring.threads.virtual.enabled=true
+ *                                                 (blocking on virtual threads, Java 21 runtime)
+ *   --spring.profiles.active=reactive,load-test   (reactive: WebFlux, R2DBC)
+ * The load generator and the stub run in the same JVM, so both builds carry the same client threads.
+ * Requests carry this service's own token, so they pass the JWT filter like any authenticated call.
+ * The investments are deleted afterwards, so it refuses to start unless the datasource is an in-memory H2 database
+ * (the profile's default).
+ */
+@Component
+@Profile("load-test")
+public class InvestmentLoadTest implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvestmentLoadTest.class);
+
+    private static final long CUSTOMER_ID_BASE = 800_000_000L;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ServiceTokenProvider serviceTokenProvider;
+
+    @Value("${benchmark.load.downstream-port:18099}")
+    private int downstreamPort;
+
+    @Value("${benchmark.load.downstream-delay:200ms}")
+    private Duration downstreamDelay;
+
+    @Value("${benchmark.load.concurrency-levels:1000,5000,10000}")
+    private int[] concurrencyLevels;
+
+    @Value("${benchmark.load.requests-per-level:20000}")
+    private int requestsPerLevel;
+
+    private final AtomicLong nextCustomerId = new AtomicLong(CUSTOMER_ID_BASE);
+
+    @Override
+    public void run(String... args) {
+        BenchmarkDatabase.requireInMemory(jdbcTemplate, "The load test");
+        String mode = environment.acceptsProfiles(Profiles.of("reactive")) ? "reactive"
+                : Threading.VIRTUAL.isActive(environment) ? "blocking (virtual threads)" : "blocking (platform threads)";
+        int port = environment.getRequiredProperty("local.server.port", Integer.class);
+
+        DisposableServer downstream = HttpServer.create()
+                .port(downstreamPort)
+                .handle((request, response) -> Mono.delay(downstreamDelay)
+                        .then(response.status(HttpResponseStatus.OK).send().then()))
+                .bindNow();
+        try {
+            logger.info("Load test {}: downstream delay {} ms, concurrency levels {}", mode,
+                    downstreamDelay.toMillis(), Arrays.toString(concurrencyLevels));
+
+            // Warm up connection pools, JIT and caches
+            runLevel(mode, port, 100, 1000, false);
+            for (int concurrency : concurrencyLevels) {
+                runLevel(mode, port, concurrency, Math.max(requestsPerLevel, concurrency), true);
+            }
+        } finally {
+            downstream.disposeNow();
+            jdbcTemplate.update("DELETE FROM wc_investment WHERE customer_id >= ?", CUSTOMER_ID_BASE);
+        }
+    }
+
+    private void runLevel(String mode, int port, int concurrency, int requests, boolean report) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("load-test")
+                .maxConnections(concurrency)
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(Duration.ofMinutes(5))
+                .build();
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)
+                        .responseTimeout(Duration.ofMinutes(5))))
+                .filter(serviceTokenProvider)
+                .build();
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        threads.resetPeakThreadCount();
+        AtomicLong heapPeak = new AtomicLong();
+        Disposable sampler = Flux.interval(Duration.ZERO, Duration.ofMillis(100))
+                .subscribe(tick -> heapPeak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max));
+
+        AtomicInteger errors = new AtomicInteger();
+        long start = System.nanoTime();
+        List<Long> latencies = Flux.range(0, requests)
+                .flatMap(i -> createInvestment(webClient, errors), concurrency)
+                .collectList()
+                .block();
+        long elapsed = System.nanoTime() - start;
+
+        sampler.dispose();
+        connectionProvider.dispose();
+        if (!report) {
+            return;
+        }
+
+        long[] nanos = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        double seconds = elapsed / 1_000_000_000.0;
+        logger.info("Load test {} at concurrency {}: {} requests in {} s, {} req/s, p50 {} ms, p99 {} ms, errors {}, "
+                        + "peak live threads {}, peak heap used {} MB",
+                mode, concurrency, requests, String.format("%.1f", seconds), String.format("%.0f", latencies.size() / seconds),
+                percentile(nanos, 50), percentile(nanos, 99), errors.get(),
+                threads.getPeakThreadCount(), heapPeak.get() / (1024 * 1024));
+    }
+
+    private Mono<Long> createInvestment(WebClient webClient, AtomicInteger errors) {
+        long id = nextCustomerId.incrementAndGet();
+        Map<String, Object> investment = new LinkedHashMap<>();
+        investment.put("customerId", id);
+        investment.put("goalId", id);
+        investment.put("investmentName", "Load test " + id);
+        investment.put("investmentType", "BONDS");
+        investment.put("symbol", "LOAD");
+        investment.put("quantity", 1);
+        investment.put("purchasePrice", 100);
+        investment.put("purchaseDate", LocalDate.now().toString());
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return webClient.post()
+                    .uri("/api/investments")
+                    .bodyValue(investment)
+                    .retrieve()
+                    .toBodilessEntity()
+                    .map(response -> System.nanoTime() - start);
+        }).onErrorResume(e -> {
+            errors.incrementAndGet();
+            return Mono.empty();
+        });
+    }
+
+    private static double percentile(long[] nanos, int percentile) {
+        if (nanos.length == 0) {
+            return 0;
+        }
+        return nanos[Math.min(nanos.length - 1, nanos.length * percentile / 100)] / 1_000_000.0;
+    }
+}
+
+// Made with Bob
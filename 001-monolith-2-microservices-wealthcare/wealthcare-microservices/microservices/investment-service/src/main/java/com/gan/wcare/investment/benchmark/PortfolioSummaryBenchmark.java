@@ -0,0 +1,141 @@
+package com.gan.wcare.investment.benchmark;
+
+import com.gan.wcare.investment.dto.PriceTickDTO;
+import com.gan.wcare.investment.model.Investment;
+import com.gan.wcare.investment.repository.InvestmentRepository;
+import com.gan.wcare.investment.service.InvestmentService;
+import com.gan.wcare.investment.service.SymbolPriceIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Portfolio Summary Benchmark
+ * Loads a portfolio of benchmark.holdings investments and times getPortfolioSummary (grouped aggregate)
+ * against the previous implementation (load every entity and sum in Java), then a batch of price ticks
+ * (one symbol price row per symbol, whatever the number of holdings).
+ * Run with --spring.profiles.active=benchmark, the results are logged at startup. It deletes and inserts rows, so it
+ * refuses to start unless the datasource is an in-memory H2 database (the profile's default).
+ */
+@Component
+@Profile("benchmark")
+public class PortfolioSummaryBenchmark implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioSummaryBenchmark.class);
+
+    private static final String[] TYPES = {"STOCKS", "BONDS", "MUTUAL_FUNDS", "ETF", "REAL_ESTATE", "GOLD", "CRYPTO", "OTHER"};
+
+    @Autowired
+    private InvestmentService investmentService;
+
+    @Autowired
+    private InvestmentRepository investmentRepository;
+
+    @Autowired
+    private SymbolPriceIndex symbolPriceIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${benchmark.customer-id:900001}")
+    private Long customerId;
+
+    @Value("${benchmark.holdings:10000}")
+    private int holdings;
+
+    @Value("${benchmark.symbols:2000}")
+    private int symbols;
+
+    @Value("${benchmark.iterations:200}")
+    private int iterations;
+
+    @Override
+    public void run(String... args) {
+        BenchmarkDatabase.requireInMemory(jdbcTemplate, "The portfolio summary benchmark");
+        loadPortfolio();
+
+        time("entities + Java sums", () -> sumEntities());
+        time("grouped aggregate", () -> investmentService.getPortfolioSummary(customerId).getCurrentValue());
+        time("price batch", () -> ingestPrices());
+    }
+
+    private void loadPortfolio() {
+        jdbcTemplate.update("DELETE FROM wc_investment WHERE customer_id = ?", customerId);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < holdings; i++) {
+            String type = TYPES[i % TYPES.length];
+            BigDecimal purchasePrice = BigDecimal.valueOf(10 + i % 500, 0);
+            BigDecimal currentPrice = Investment.MARKET_PRICED_TYPES.contains(type) ? null : purchasePrice.add(BigDecimal.valueOf(i % 7));
+            rows.add(new Object[] {customerId, "Holding " + i, type, symbol(i % symbols),
+                    BigDecimal.valueOf(1 + i % 100), purchasePrice, currentPrice,
+                    Date.valueOf(LocalDate.now().minusDays(i % 3650)), "ACTIVE", Date.valueOf(LocalDate.now())});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO wc_investment (customer_id, investment_name, investment_type, symbol, quantity, " +
+                "purchase_price, current_price, purchase_date, status, created_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+
+        ingestPrices();
+        logger.info("Benchmark portfolio loaded: customer {} with {} holdings of {} symbols", customerId, holdings, symbols);
+    }
+
+    //Previous getPortfolioSummary implementation
+    private BigDecimal sumEntities() {
+        return transactionTemplate.execute(status -> {
+            BigDecimal currentValue = BigDecimal.ZERO;
+            for (Investment investment : investmentRepository.findActiveInvestmentsByCustomerId(customerId)) {
+                currentValue = currentValue.add(investment.getCurrentValue(symbolPriceIndex.currentPriceOf(investment)));
+            }
+            return currentValue;
+        });
+    }
+
+    private BigDecimal ingestPrices() {
+        List<PriceTickDTO> ticks = new ArrayList<>();
+        for (int i = 0; i < symbols; i++) {
+            ticks.add(new PriceTickDTO(symbol(i), BigDecimal.valueOf(10 + (i + System.nanoTime()) % 500, 0)));
+        }
+        return BigDecimal.valueOf(investmentService.ingestPrices(ticks).getPricesUpdated());
+    }
+
+    private static String symbol(int index) {
+        return "SYM" + index;
+    }
+
+    private void time(String name, Supplier<BigDecimal> summary) {
+        BigDecimal result = null;
+        for (int i = 0; i < iterations / 4; i++) {
+            result = summary.get();
+        }
+
+        long[] nanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            summary.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+
+        logger.info("Benchmark {} ({} holdings): p50 {} ms, p99 {} ms, max {} ms, current value {}", name, holdings,
+                nanos[iterations / 2] / 1_000_000.0, nanos[iterations * 99 / 100] / 1_000_000.0,
+                nanos[iterations - 1] / 1_000_000.0, result);
+    }
+}
+
+// Made with Bob
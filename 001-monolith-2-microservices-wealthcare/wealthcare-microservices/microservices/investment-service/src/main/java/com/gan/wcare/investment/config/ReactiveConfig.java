@@ -0,0 +1,103 @@
+package com.gan.wcare.investment.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.config.CorsRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Reactive Configuration
+ * WebFlux and R2DBC setup of the reactive profile: Netty server, CORS, Pageable arguments and R2DBC transactions.
+ * The JDBC DataSource (JPA schema, data.sql, symbol prices) is declared here because Spring Boot does not
+ * configure one next to an R2DBC ConnectionFactory. The R2DBC transaction manager is not a bean, so
+ * @Transactional keeps resolving to the JPA one.
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfig {
+
+    @Value("${spring.data.web.pageable.max-page-size:500}")
+    private int maxPageSize;
+
+    /**
+     * Netty rather than Tomcat, which is on the classpath for the blocking build and would be picked first
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * JDBC DataSource from the spring.datasource properties
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    /**
+     * data.sql through JDBC, after Hibernate created the schema (instead of through R2DBC, before it)
+     */
+    @Bean
+    public SqlDataSourceScriptDatabaseInitializer dataSourceScriptDatabaseInitializer(DataSource dataSource,
+                                                                                     SqlInitializationProperties properties) {
+        return new SqlDataSourceScriptDatabaseInitializer(dataSource, properties);
+    }
+
+    /**
+     * Transactions of the reactive repository
+     */
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    @Bean
+    public WebFluxConfigurer reactiveWebConfigurer() {
+        return new WebFluxConfigurer() {
+            @Override
+            public void addCorsMappings(CorsRegistry registry) {
+                registry.addMapping("/**")
+                        .allowedOrigins(
+                            "http://localhost:3000",           // Local React development
+                            "http://localhost:5173",           // Vite development server
+                            "https://*.cloud.ibm.com",         // IBM Cloud/Code Engine
+                            "https://*.mybluemix.net"          // IBM Cloud legacy domains
+                        )
+                        .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH")
+                        .allowedHeaders("*")
+                        .allowCredentials(true)
+                        .maxAge(3600);
+            }
+
+            @Override
+            public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+                ReactivePageableHandlerMethodArgumentResolver pageableResolver = new ReactivePageableHandlerMethodArgumentResolver();
+                pageableResolver.setMaxPageSize(maxPageSize);
+                configurer.addCustomResolver(pageableResolver);
+            }
+        };
+    }
+}
+
+// Made with Bob
@@ -2,6 +2,7 @@ package com.gan.wcare.investment.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -10,6 +11,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  * Allows React frontend to communicate with backend APIs
  */
 @Configuration
+@Profile("!reactive")
 public class WebConfig {
 
     @Bean
@@ -1,17 +1,31 @@
 package com.gan.wcare.investment.controller;
 
+import com.gan.wcare.investment.dto.GoalValueDTO;
 import com.gan.wcare.investment.dto.InvestmentDTO;
+import com.gan.wcare.investment.dto.KeysetPageDTO;
+import com.gan.wcare.investment.dto.PortfolioRevaluationDTO;
 import com.gan.wcare.investment.dto.PortfolioSummaryDTO;
+import com.gan.wcare.investment.dto.PriceIngestionResultDTO;
+import com.gan.wcare.investment.dto.PriceTickDTO;
 import com.gan.wcare.investment.service.InvestmentService;
+import com.gan.wcare.investment.service.PortfolioStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -23,6 +37,7 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/investments")
 @Tag(name = "Investment Management", description = "APIs for managing investments and portfolios")
+@Profile("!reactive")
 public class InvestmentController {
 
     private static final Logger logger = LoggerFactory.getLogger(InvestmentController.class);
@@ -30,6 +45,9 @@ public class InvestmentController {
     @Autowired
     private InvestmentService investmentService;
 
+    @Autowired
+    private PortfolioStreamService portfolioStreamService;
+
     /**
      * Get all investments
      */
@@ -41,6 +59,43 @@ public class InvestmentController {
         return ResponseEntity.ok(investments);
     }
 
+    /**
+     * Get one page of investments
+     */
+    @GetMapping("/page")
+    @Operation(summary = "Get investments page", description = "Retrieve one page of investments (page, size, sort; id breaks ties)")
+    public ResponseEntity<Page<InvestmentDTO>> getInvestmentsPage(@PageableDefault(size = 50, sort = "id") Pageable pageable) {
+        logger.info("GET /api/investments/page - Get investments page");
+        Page<InvestmentDTO> investments = investmentService.getInvestmentsPage(pageable);
+        return ResponseEntity.ok(investments);
+    }
+
+    /**
+     * Get the investments after an id
+     */
+    @GetMapping("/keyset")
+    @Operation(summary = "Get investments after an id", description = "Retrieve the next investments in id order after afterId (keyset pagination)")
+    public ResponseEntity<KeysetPageDTO<InvestmentDTO>> getInvestmentsAfter(
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(defaultValue = "50") int size) {
+        logger.info("GET /api/investments/keyset - Get investments after id {}", afterId);
+        KeysetPageDTO<InvestmentDTO> investments = investmentService.getInvestmentsAfter(afterId, size);
+        return ResponseEntity.ok(investments);
+    }
+
+    /**
+     * Stream all investments as newline delimited JSON
+     */
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    @Operation(summary = "Stream all investments", description = "Every investment as newline delimited JSON, in id order")
+    public ResponseEntity<StreamingResponseBody> streamAllInvestments() {
+        logger.info("GET /api/investments/stream - Stream all investments");
+        StreamingResponseBody body = out -> investmentService.streamAllInvestments(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     /**
      * Get investment by ID
      */
@@ -107,6 +162,27 @@ public class InvestmentController {
         return ResponseEntity.ok(summary);
     }
 
+    /**
+     * Get the current value of several goals
+     */
+    @PostMapping("/goal-values")
+    @Operation(summary = "Get goal values", description = "Current value of the active investments of each given goal id (at most 1000), in one aggregate query")
+    public ResponseEntity<List<GoalValueDTO>> getGoalValues(@RequestBody List<Long> goalIds) {
+        logger.info("POST /api/investments/goal-values - Get values of {} goals", goalIds.size());
+        List<GoalValueDTO> goalValues = investmentService.getGoalValues(goalIds);
+        return ResponseEntity.ok(goalValues);
+    }
+
+    /**
+     * Stream live portfolio revaluation
+     */
+    @GetMapping(value = "/customer/{customerId}/portfolio-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream portfolio revaluation", description = "Server-Sent Events: a snapshot of the portfolio, then the holdings whose value changed with the new totals")
+    public Flux<ServerSentEvent<PortfolioRevaluationDTO>> streamPortfolio(@PathVariable Long customerId) {
+        logger.info("GET /api/investments/customer/{}/portfolio-stream - Stream portfolio revaluation", customerId);
+        return portfolioStreamService.streamPortfolio(customerId);
+    }
+
     /**
      * Create new investment
      */
@@ -131,6 +207,17 @@ public class InvestmentController {
         return ResponseEntity.ok(updatedInvestment);
     }
 
+    /**
+     * Bulk update of current prices by symbol
+     */
+    @PostMapping("/prices")
+    @Operation(summary = "Ingest market prices", description = "Apply a batch of (symbol, price) ticks to every investment of each symbol")
+    public ResponseEntity<PriceIngestionResultDTO> ingestPrices(@Valid @RequestBody List<@Valid PriceTickDTO> ticks) {
+        logger.info("POST /api/investments/prices - Ingest {} price ticks", ticks.size());
+        PriceIngestionResultDTO result = investmentService.ingestPrices(ticks);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Update current price
      */
@@ -0,0 +1,251 @@
+package com.gan.wcare.investment.controller;
+
+import com.gan.wcare.investment.dto.GoalValueDTO;
+import com.gan.wcare.investment.dto.InvestmentDTO;
+import com.gan.wcare.investment.dto.KeysetPageDTO;
+import com.gan.wcare.investment.dto.PortfolioRevaluationDTO;
+import com.gan.wcare.investment.dto.PortfolioSummaryDTO;
+import com.gan.wcare.investment.dto.PriceIngestionResultDTO;
+import com.gan.wcare.investment.dto.PriceTickDTO;
+import com.gan.wcare.investment.service.PortfolioStreamService;
+import com.gan.wcare.investment.service.ReactiveInvestmentService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Reactive Investment REST Controller
+ * Same API as InvestmentController, served by WebFlux without blocking (reactive profile)
+ */
+@RestController
+@RequestMapping("/api/investments")
+@Profile("reactive")
+@Tag(name = "Investment Management", description = "APIs for managing investments and portfolios")
+public class ReactiveInvestmentController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveInvestmentController.class);
+
+    @Autowired
+    private ReactiveInvestmentService reactiveInvestmentService;
+
+    @Autowired
+    private PortfolioStreamService portfolioStreamService;
+
+    /**
+     * Get all investments
+     */
+    @GetMapping
+    @Operation(summary = "Get all investments", description = "Retrieve all investments in the system")
+    public Flux<InvestmentDTO> getAllInvestments() {
+        logger.info("GET /api/investments - Get all investments");
+        return reactiveInvestmentService.getAllInvestments();
+    }
+
+    /**
+     * Get one page of investments
+     */
+    @GetMapping("/page")
+    @Operation(summary = "Get investments page", description = "Retrieve one page of investments (page, size, sort; id breaks ties)")
+    public Mono<Page<InvestmentDTO>> getInvestmentsPage(@PageableDefault(size = 50, sort = "id") Pageable pageable) {
+        logger.info("GET /api/investments/page - Get investments page");
+        return reactiveInvestmentService.getInvestmentsPage(pageable);
+    }
+
+    /**
+     * Get the investments after an id
+     */
+    @GetMapping("/keyset")
+    @Operation(summary = "Get investments after an id", description = "Retrieve the next investments in id order after afterId (keyset pagination)")
+    public Mono<KeysetPageDTO<InvestmentDTO>> getInvestmentsAfter(
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(defaultValue = "50") int size) {
+        logger.info("GET /api/investments/keyset - Get investments after id {}", afterId);
+        return reactiveInvestmentService.getInvestmentsAfter(afterId, size);
+    }
+
+    /**
+     * Stream all investments as newline delimited JSON
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all investments", description = "Every investment as newline delimited JSON, in id order")
+    public Flux<InvestmentDTO> streamAllInvestments() {
+        logger.info("GET /api/investments/stream - Stream all investments");
+        return reactiveInvestmentService.streamAllInvestments();
+    }
+
+    /**
+     * Get investment by ID
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Get investment by ID", description = "Retrieve a specific investment by its ID")
+    public Mono<InvestmentDTO> getInvestmentById(@PathVariable Long id) {
+        logger.info("GET /api/investments/{} - Get investment by ID", id);
+        return reactiveInvestmentService.getInvestmentById(id);
+    }
+
+    /**
+     * Get investments by customer ID
+     */
+    @GetMapping("/customer/{customerId}")
+    @Operation(summary = "Get investments by customer", description = "Retrieve all investments for a specific customer")
+    public Flux<InvestmentDTO> getInvestmentsByCustomerId(@PathVariable Long customerId) {
+        logger.info("GET /api/investments/customer/{} - Get investments by customer ID", customerId);
+        return reactiveInvestmentService.getInvestmentsByCustomerId(customerId);
+    }
+
+    /**
+     * Get active investments by customer ID
+     */
+    @GetMapping("/customer/{customerId}/active")
+    @Operation(summary = "Get active investments by customer", description = "Retrieve all active investments for a specific customer")
+    public Flux<InvestmentDTO> getActiveInvestmentsByCustomerId(@PathVariable Long customerId) {
+        logger.info("GET /api/investments/customer/{}/active - Get active investments by customer ID", customerId);
+        return reactiveInvestmentService.getActiveInvestmentsByCustomerId(customerId);
+    }
+
+    /**
+     * Get investments by goal ID
+     */
+    @GetMapping("/goal/{goalId}")
+    @Operation(summary = "Get investments by goal", description = "Retrieve all investments linked to a specific goal")
+    public Flux<InvestmentDTO> getInvestmentsByGoalId(@PathVariable Long goalId) {
+        logger.info("GET /api/investments/goal/{} - Get investments by goal ID", goalId);
+        return reactiveInvestmentService.getInvestmentsByGoalId(goalId);
+    }
+
+    /**
+     * Get investments by type
+     */
+    @GetMapping("/type/{investmentType}")
+    @Operation(summary = "Get investments by type", description = "Retrieve all investments of a specific type")
+    public Flux<InvestmentDTO> getInvestmentsByType(@PathVariable String investmentType) {
+        logger.info("GET /api/investments/type/{} - Get investments by type", investmentType);
+        return reactiveInvestmentService.getInvestmentsByType(investmentType);
+    }
+
+    /**
+     * Get portfolio summary for a customer
+     */
+    @GetMapping("/customer/{customerId}/portfolio-summary")
+    @Operation(summary = "Get portfolio summary", description = "Get aggregated portfolio summary for a customer")
+    public Mono<PortfolioSummaryDTO> getPortfolioSummary(@PathVariable Long customerId) {
+        logger.info("GET /api/investments/customer/{}/portfolio-summary - Get portfolio summary", customerId);
+        return reactiveInvestmentService.getPortfolioSummary(customerId);
+    }
+
+    /**
+     * Get the current value of several goals
+     */
+    @PostMapping("/goal-values")
+    @Operation(summary = "Get goal values", description = "Current value of the active investments of each given goal id (at most 1000), in one aggregate query")
+    public Mono<List<GoalValueDTO>> getGoalValues(@RequestBody List<Long> goalIds) {
+        logger.info("POST /api/investments/goal-values - Get values of {} goals", goalIds.size());
+        return reactiveInvestmentService.getGoalValues(goalIds);
+    }
+
+    /**
+     * Stream live portfolio revaluation
+     */
+    @GetMapping(value = "/customer/{customerId}/portfolio-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream portfolio revaluation", description = "Server-Sent Events: a snapshot of the portfolio, then the holdings whose value changed with the new totals")
+    public Flux<ServerSentEvent<PortfolioRevaluationDTO>> streamPortfolio(@PathVariable Long customerId) {
+        logger.info("GET /api/investments/customer/{}/portfolio-stream - Stream portfolio revaluation", customerId);
+        return portfolioStreamService.streamPortfolio(customerId);
+    }
+
+    /**
+     * Create new investment
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Create investment", description = "Create a new investment")
+    public Mono<InvestmentDTO> createInvestment(@Valid @RequestBody InvestmentDTO investmentDTO) {
+        logger.info("POST /api/investments - Create new investment for customer: {}", investmentDTO.getCustomerId());
+        return reactiveInvestmentService.createInvestment(investmentDTO);
+    }
+
+    /**
+     * Update investment
+     */
+    @PutMapping("/{id}")
+    @Operation(summary = "Update investment", description = "Update an existing investment")
+    public Mono<InvestmentDTO> updateInvestment(
+            @PathVariable Long id,
+            @Valid @RequestBody InvestmentDTO investmentDTO) {
+        logger.info("PUT /api/investments/{} - Update investment", id);
+        return reactiveInvestmentService.updateInvestment(id, investmentDTO);
+    }
+
+    /**
+     * Bulk update of current prices by symbol
+     */
+    @PostMapping("/prices")
+    @Operation(summary = "Ingest market prices", description = "Apply a batch of (symbol, price) ticks to every investment of each symbol")
+    public Mono<PriceIngestionResultDTO> ingestPrices(@Valid @RequestBody List<@Valid PriceTickDTO> ticks) {
+        logger.info("POST /api/investments/prices - Ingest {} price ticks", ticks.size());
+        return reactiveInvestmentService.ingestPrices(ticks);
+    }
+
+    /**
+     * Update current price
+     */
+    @PatchMapping("/{id}/current-price")
+    @Operation(summary = "Update current price", description = "Update the current market price of an investment")
+    public Mono<InvestmentDTO> updateCurrentPrice(
+            @PathVariable Long id,
+            @RequestParam BigDecimal currentPrice) {
+        logger.info("PATCH /api/investments/{}/current-price - Update current price to {}", id, currentPrice);
+        return reactiveInvestmentService.updateCurrentPrice(id, currentPrice);
+    }
+
+    /**
+     * Link investment to goal
+     */
+    @PatchMapping("/{investmentId}/link-goal/{goalId}")
+    @Operation(summary = "Link investment to goal", description = "Link an investment to a financial goal")
+    public Mono<InvestmentDTO> linkInvestmentToGoal(
+            @PathVariable Long investmentId,
+            @PathVariable Long goalId) {
+        logger.info("PATCH /api/investments/{}/link-goal/{} - Link investment to goal", investmentId, goalId);
+        return reactiveInvestmentService.linkInvestmentToGoal(investmentId, goalId);
+    }
+
+    /**
+     * Delete investment
+     */
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "Delete investment", description = "Delete an investment")
+    public Mono<Void> deleteInvestment(@PathVariable Long id) {
+        logger.info("DELETE /api/investments/{} - Delete investment", id);
+        return reactiveInvestmentService.deleteInvestment(id);
+    }
+
+    /**
+     * Exception handler for runtime exceptions
+     */
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<String> handleRuntimeException(RuntimeException ex) {
+        logger.error("Error occurred: {}", ex.getMessage(), ex);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+}
+
+// Made with Bob
@@ -0,0 +1,62 @@
+package com.gan.wcare.investment.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Goal Value Data Transfer Object
+ * Amount invested in and current value of the active investments linked to one goal
+ */
+public class GoalValueDTO {
+
+    private Long goalId;
+    private Integer holdings;
+    private BigDecimal totalInvested;
+    private BigDecimal currentValue;
+
+    // Constructors
+    public GoalValueDTO() {
+        this.holdings = 0;
+        this.totalInvested = BigDecimal.ZERO;
+        this.currentValue = BigDecimal.ZERO;
+    }
+
+    public GoalValueDTO(Long goalId) {
+        this();
+        this.goalId = goalId;
+    }
+
+    // Getters and Setters
+    public Long getGoalId() {
+        return goalId;
+    }
+
+    public void setGoalId(Long goalId) {
+        this.goalId = goalId;
+    }
+
+    public Integer getHoldings() {
+        return holdings;
+    }
+
+    public void setHoldings(Integer holdings) {
+        this.holdings = holdings;
+    }
+
+    public BigDecimal getTotalInvested() {
+        return totalInvested;
+    }
+
+    public void setTotalInvested(BigDecimal totalInvested) {
+        this.totalInvested = totalInvested;
+    }
+
+    public BigDecimal getCurrentValue() {
+        return currentValue;
+    }
+
+    public void setCurrentValue(BigDecimal currentValue) {
+        this.currentValue = currentValue;
+    }
+}
+
+// Made with Bob
@@ -0,0 +1,81 @@
+package com.gan.wcare.investment.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Holding Value Data Transfer Object
+ * Current valuation of one investment in a portfolio stream
+ */
+public class HoldingValueDTO {
+
+    private Long investmentId;
+    private String symbol;
+    private String investmentType;
+    private BigDecimal currentPrice;
+    private BigDecimal currentValue;
+    private BigDecimal gainLoss;
+    private BigDecimal gainLossPercentage;
+
+    // Constructors
+    public HoldingValueDTO() {
+    }
+
+    // Getters and Setters
+    public Long getInvestmentId() {
+        return investmentId;
+    }
+
+    public void setInvestmentId(Long investmentId) {
+        this.investmentId = investmentId;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getInvestmentType() {
+        return investmentType;
+    }
+
+    public void setInvestmentType(String investmentType) {
+        this.investmentType = investmentType;
+    }
+
+    public BigDecimal getCurrentPrice() {
+        return currentPrice;
+    }
+
+    public void setCurrentPrice(BigDecimal currentPrice) {
+        this.currentPrice = currentPrice;
+    }
+
+    public BigDecimal getCurrentValue() {
+        return currentValue;
+    }
+
+    public void setCurrentValue(BigDecimal currentValue) {
+        this.currentValue = currentValue;
+    }
+
+    public BigDecimal getGainLoss() {
+        return gainLoss;
+    }
+
+    public void setGainLoss(BigDecimal gainLoss) {
+        this.gainLoss = gainLoss;
+    }
+
+    public BigDecimal getGainLossPercentage() {
+        return gainLossPercentage;
+    }
+
+    public void setGainLossPercentage(BigDecimal gainLossPercentage) {
+        this.gainLossPercentage = gainLossPercentage;
+    }
+}
+
+// Made with Bob
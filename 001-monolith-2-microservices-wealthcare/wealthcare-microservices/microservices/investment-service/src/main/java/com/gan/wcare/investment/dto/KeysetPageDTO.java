@@ -0,0 +1,43 @@
+package com.gan.wcare.investment.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyset Page Data Transfer Object
+ * One page of a list ordered by id, the next page starts after nextAfterId (null on the last page)
+ */
+public class KeysetPageDTO<T> {
+
+    private List<T> items;
+    private Long nextAfterId;
+
+    // Constructors
+    public KeysetPageDTO() {
+        this.items = new ArrayList<>();
+    }
+
+    public KeysetPageDTO(List<T> items, Long nextAfterId) {
+        this.items = items;
+        this.nextAfterId = nextAfterId;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public Long getNextAfterId() {
+        return nextAfterId;
+    }
+
+    public void setNextAfterId(Long nextAfterId) {
+        this.nextAfterId = nextAfterId;
+    }
+}
+
+// Made with Bob
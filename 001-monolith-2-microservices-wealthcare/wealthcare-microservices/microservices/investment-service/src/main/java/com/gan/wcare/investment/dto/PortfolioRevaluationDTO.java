@@ -0,0 +1,73 @@
+package com.gan.wcare.investment.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Portfolio Revaluation Data Transfer Object
+ * One portfolio stream event: the first one has every holding, the next ones only the holdings
+ * whose value changed or that are gone. The summary is always complete.
+ */
+public class PortfolioRevaluationDTO {
+
+    private Long customerId;
+    private Boolean snapshot;
+    private List<HoldingValueDTO> holdings;
+    private List<Long> removedInvestmentIds;
+    private PortfolioSummaryDTO summary;
+
+    // Constructors
+    public PortfolioRevaluationDTO() {
+        this.holdings = new ArrayList<>();
+        this.removedInvestmentIds = new ArrayList<>();
+    }
+
+    public PortfolioRevaluationDTO(Long customerId, boolean snapshot) {
+        this();
+        this.customerId = customerId;
+        this.snapshot = snapshot;
+    }
+
+    // Getters and Setters
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public Boolean getSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(Boolean snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public List<HoldingValueDTO> getHoldings() {
+        return holdings;
+    }
+
+    public void setHoldings(List<HoldingValueDTO> holdings) {
+        this.holdings = holdings;
+    }
+
+    public List<Long> getRemovedInvestmentIds() {
+        return removedInvestmentIds;
+    }
+
+    public void setRemovedInvestmentIds(List<Long> removedInvestmentIds) {
+        this.removedInvestmentIds = removedInvestmentIds;
+    }
+
+    public PortfolioSummaryDTO getSummary() {
+        return summary;
+    }
+
+    public void setSummary(PortfolioSummaryDTO summary) {
+        this.summary = summary;
+    }
+}
+
+// Made with Bob
@@ -0,0 +1,59 @@
+package com.gan.wcare.investment.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Price Ingestion Result Data Transfer Object
+ * Outcome of a bulk price ingestion
+ */
+public class PriceIngestionResultDTO {
+
+    private Integer ticks;
+    private Integer symbols;
+    private Integer pricesUpdated;
+    private List<String> newSymbols;
+
+    // Constructors
+    public PriceIngestionResultDTO() {
+        this.ticks = 0;
+        this.symbols = 0;
+        this.pricesUpdated = 0;
+        this.newSymbols = new ArrayList<>();
+    }
+
+    // Getters and Setters
+    public Integer getTicks() {
+        return ticks;
+    }
+
+    public void setTicks(Integer ticks) {
+        this.ticks = ticks;
+    }
+
+    public Integer getSymbols() {
+        return symbols;
+    }
+
+    public void setSymbols(Integer symbols) {
+        this.symbols = symbols;
+    }
+
+    public Integer getPricesUpdated() {
+        return pricesUpdated;
+    }
+
+    public void setPricesUpdated(Integer pricesUpdated) {
+        this.pricesUpdated = pricesUpdated;
+    }
+
+    public List<String> getNewSymbols() {
+        return newSymbols;
+    }
+
+    public void setNewSymbols(List<String> newSymbols) {
+        this.newSymbols = newSymbols;
+    }
+}
+
+// Made with Bob
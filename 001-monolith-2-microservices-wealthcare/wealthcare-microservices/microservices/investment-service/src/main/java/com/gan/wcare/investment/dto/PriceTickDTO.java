@@ -0,0 +1,47 @@
+package com.gan.wcare.investment.dto;
+
+import jakarta.validation.constraints.*;
+import java.math.BigDecimal;
+
+/**
+ * Price Tick Data Transfer Object
+ * Market price of one symbol
+ */
+public class PriceTickDTO {
+
+    @NotBlank(message = "Symbol is required")
+    @Size(max = 20, message = "Symbol must not exceed 20 characters")
+    private String symbol;
+
+    @NotNull(message = "Price is required")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
+    private BigDecimal price;
+
+    // Constructors
+    public PriceTickDTO() {
+    }
+
+    public PriceTickDTO(String symbol, BigDecimal price) {
+        this.symbol = symbol;
+        this.price = price;
+    }
+
+    // Getters and Setters
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+}
+
+// Made with Bob
@@ -4,16 +4,28 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Set;
 
 /**
  * Investment Entity
  * Represents an investment in a customer's portfolio
+ * Mapped for JPA and, in the reactive profile, for R2DBC (same table, columns by naming convention)
  */
 @Entity
-@Table(name = "wc_investment")
+@Table(name = "wc_investment", indexes = {
+        @Index(name = "idx_investment_customer_status", columnList = "customer_id, status")
+})
+@org.springframework.data.relational.core.mapping.Table("wc_investment")
 public class Investment {
 
+    /**
+     * Types valued at the market price of their symbol (wc_symbol_price) while active.
+     * Other holdings, and sold or matured ones, keep their own current price.
+     */
+    public static final Set<String> MARKET_PRICED_TYPES = Set.of("STOCKS", "MUTUAL_FUNDS", "ETF", "GOLD", "CRYPTO");
+
     @Id
+    @org.springframework.data.annotation.Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
@@ -216,23 +228,40 @@ public class Investment {
         return purchasePrice.multiply(quantity);
     }
 
+    public boolean isMarketPriced() {
+        return "ACTIVE".equals(status) && MARKET_PRICED_TYPES.contains(investmentType);
+    }
+
     public BigDecimal getCurrentValue() {
-        if (currentPrice != null) {
-            return currentPrice.multiply(quantity);
-        }
-        return getTotalInvestment();
+        return getCurrentValue(currentPrice);
     }
 
     public BigDecimal getGainLoss() {
-        return getCurrentValue().subtract(getTotalInvestment());
+        return getGainLoss(currentPrice);
     }
 
     public BigDecimal getGainLossPercentage() {
+        return getGainLossPercentage(currentPrice);
+    }
+
+    // Valuation at a given price (the symbol price of market priced holdings)
+    public BigDecimal getCurrentValue(BigDecimal price) {
+        if (price != null) {
+            return price.multiply(quantity);
+        }
+        return getTotalInvestment();
+    }
+
+    public BigDecimal getGainLoss(BigDecimal price) {
+        return getCurrentValue(price).subtract(getTotalInvestment());
+    }
+
+    public BigDecimal getGainLossPercentage(BigDecimal price) {
         BigDecimal totalInvestment = getTotalInvestment();
         if (totalInvestment.compareTo(BigDecimal.ZERO) == 0) {
             return BigDecimal.ZERO;
         }
-        return getGainLoss()
+        return getGainLoss(price)
                 .divide(totalInvestment, 4, BigDecimal.ROUND_HALF_UP)
                 .multiply(new BigDecimal("100"));
     }
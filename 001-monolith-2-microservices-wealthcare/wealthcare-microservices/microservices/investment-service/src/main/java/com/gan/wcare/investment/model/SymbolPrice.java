@@ -0,0 +1,76 @@
+package com.gan.wcare.investment.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Symbol Price Entity
+ * Market price of a symbol, shared by every active market priced holding of that symbol.
+ * The version is incremented by each price update.
+ */
+@Entity
+@Table(name = "wc_symbol_price")
+public class SymbolPrice {
+
+    @Id
+    @Column(name = "symbol", length = 20)
+    private String symbol;
+
+    @Column(name = "price", nullable = false, precision = 15, scale = 2)
+    private BigDecimal price;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "last_updated_date", nullable = false)
+    private LocalDate lastUpdatedDate;
+
+    // Constructors
+    public SymbolPrice() {
+    }
+
+    // Getters and Setters
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDate getLastUpdatedDate() {
+        return lastUpdatedDate;
+    }
+
+    public void setLastUpdatedDate(LocalDate lastUpdatedDate) {
+        this.lastUpdatedDate = lastUpdatedDate;
+    }
+
+    @Override
+    public String toString() {
+        return "SymbolPrice{" +
+                "symbol='" + symbol + '\'' +
+                ", price=" + price +
+                ", version=" + version +
+                '}';
+    }
+}
+
+// Made with Bob
@@ -0,0 +1,71 @@
+package com.gan.wcare.investment.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Holding Total
+ * Aggregate of active investments sharing an investment type and a symbol (per goal for goal values).
+ * Holdings valued at a symbol price are priced when read, the others carry their value.
+ */
+public class HoldingTotal {
+
+    private final Long goalId;
+    private final String investmentType;
+    private final String symbol;
+    private final Long holdings;
+    private final BigDecimal totalInvested;
+    private final BigDecimal quantity;
+    private final BigDecimal ownValue;
+
+    public HoldingTotal(String investmentType, String symbol, Long holdings,
+                        BigDecimal totalInvested, BigDecimal quantity, BigDecimal ownValue) {
+        this(null, investmentType, symbol, holdings, totalInvested, quantity, ownValue);
+    }
+
+    public HoldingTotal(Long goalId, String investmentType, String symbol, Long holdings,
+                        BigDecimal totalInvested, BigDecimal quantity, BigDecimal ownValue) {
+        this.goalId = goalId;
+        this.investmentType = investmentType;
+        this.symbol = symbol;
+        this.holdings = holdings;
+        this.totalInvested = totalInvested;
+        this.quantity = quantity;
+        this.ownValue = ownValue;
+    }
+
+    /**
+     * Goal of the holdings, null in a customer's portfolio totals
+     */
+    public Long getGoalId() {
+        return goalId;
+    }
+
+    public String getInvestmentType() {
+        return investmentType;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public Long getHoldings() {
+        return holdings;
+    }
+
+    public BigDecimal getTotalInvested() {
+        return totalInvested;
+    }
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Value at the holdings' own current price (purchase price when unset)
+     */
+    public BigDecimal getOwnValue() {
+        return ownValue;
+    }
+}
+
+// Made with Bob
@@ -1,12 +1,18 @@
 package com.gan.wcare.investment.repository;
 
 import com.gan.wcare.investment.model.Investment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Investment Repository
@@ -51,6 +57,43 @@ public interface InvestmentRepository extends JpaRepository<Investment, Long> {
     @Query("SELECT i FROM Investment i WHERE i.customerId = :customerId AND i.status = 'ACTIVE'")
     List<Investment> findActiveInvestmentsByCustomerId(@Param("customerId") Long customerId);
 
+    /**
+     * Sum active investments of a customer per investment type and symbol, without loading the entities.
+     * Market priced holdings are valued by the caller at their symbol price, from the quantity.
+     */
+    @Query("SELECT new com.gan.wcare.investment.repository.HoldingTotal(i.investmentType, i.symbol, COUNT(i), " +
+           "SUM(i.purchasePrice * i.quantity), SUM(i.quantity), " +
+           "SUM(COALESCE(i.currentPrice, i.purchasePrice) * i.quantity)) " +
+           "FROM Investment i WHERE i.customerId = :customerId AND i.status = 'ACTIVE' " +
+           "GROUP BY i.investmentType, i.symbol")
+    List<HoldingTotal> sumActiveInvestmentsByType(@Param("customerId") Long customerId);
+
+    /**
+     * Sum active investments per goal, investment type and symbol, like sumActiveInvestmentsByType.
+     * Goals without active investments have no row.
+     */
+    @Query("SELECT new com.gan.wcare.investment.repository.HoldingTotal(i.goalId, i.investmentType, i.symbol, COUNT(i), " +
+           "SUM(i.purchasePrice * i.quantity), SUM(i.quantity), " +
+           "SUM(COALESCE(i.currentPrice, i.purchasePrice) * i.quantity)) " +
+           "FROM Investment i WHERE i.goalId IN :goalIds AND i.status = 'ACTIVE' " +
+           "GROUP BY i.goalId, i.investmentType, i.symbol")
+    List<HoldingTotal> sumActiveInvestmentsByGoal(@Param("goalIds") Collection<Long> goalIds);
+
+    /**
+     * Keyset page: the investments after an id, in id order
+     */
+    List<Investment> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Every investment in id order, fetched from the cursor in chunks, to be used inside a read-only transaction
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Investment i ORDER BY i.id")
+    Stream<Investment> streamAll();
+
     /**
      * Count investments by customer
      */
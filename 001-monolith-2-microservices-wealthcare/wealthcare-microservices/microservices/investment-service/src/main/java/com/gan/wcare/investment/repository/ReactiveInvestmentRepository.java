@@ -0,0 +1,51 @@
+package com.gan.wcare.investment.repository;
+
+import com.gan.wcare.investment.model.Investment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reactive Investment Repository
+ * Non-blocking (R2DBC) equivalent of InvestmentRepository, used by the reactive profile
+ * (the portfolio aggregate is in ReactivePortfolioRepository)
+ */
+@Repository
+public interface ReactiveInvestmentRepository extends R2dbcRepository<Investment, Long> {
+
+    /**
+     * Find all investments for a customer
+     */
+    Flux<Investment> findByCustomerId(Long customerId);
+
+    /**
+     * Find all investments linked to a goal
+     */
+    Flux<Investment> findByGoalId(Long goalId);
+
+    /**
+     * Find all investments by type
+     */
+    Flux<Investment> findByInvestmentType(String investmentType);
+
+    /**
+     * Find all active investments for a customer
+     */
+    @Query("SELECT * FROM wc_investment WHERE customer_id = :customerId AND status = 'ACTIVE'")
+    Flux<Investment> findActiveInvestmentsByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * Keyset page: the investments after an id, in id order
+     */
+    Flux<Investment> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    /**
+     * One page of investments
+     */
+    Flux<Investment> findAllBy(Pageable pageable);
+}
+
+// Made with Bob
@@ -0,0 +1,71 @@
+package com.gan.wcare.investment.repository;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+/**
+ * Reactive Portfolio Repository
+ * Portfolio and goal aggregates of the reactive profile, read with R2DBC (see InvestmentRepository)
+ */
+@Repository
+@Profile("reactive")
+public class ReactivePortfolioRepository {
+
+    private static final String SUM_ACTIVE_INVESTMENTS_BY_TYPE =
+            "SELECT i.investment_type, i.symbol, COUNT(*) AS holdings, " +
+            "SUM(i.purchase_price * i.quantity) AS total_invested, SUM(i.quantity) AS quantity, " +
+            "SUM(COALESCE(i.current_price, i.purchase_price) * i.quantity) AS own_value " +
+            "FROM wc_investment i WHERE i.customer_id = :customerId AND i.status = 'ACTIVE' " +
+            "GROUP BY i.investment_type, i.symbol";
+
+    private static final String SUM_ACTIVE_INVESTMENTS_BY_GOAL =
+            "SELECT i.goal_id, i.investment_type, i.symbol, COUNT(*) AS holdings, " +
+            "SUM(i.purchase_price * i.quantity) AS total_invested, SUM(i.quantity) AS quantity, " +
+            "SUM(COALESCE(i.current_price, i.purchase_price) * i.quantity) AS own_value " +
+            "FROM wc_investment i WHERE i.goal_id IN (:goalIds) AND i.status = 'ACTIVE' " +
+            "GROUP BY i.goal_id, i.investment_type, i.symbol";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * Sum active investments of a customer per investment type and symbol, without loading the entities.
+     * Market priced holdings are valued by the caller at their symbol price, from the quantity.
+     */
+    public Flux<HoldingTotal> sumActiveInvestmentsByType(Long customerId) {
+        return databaseClient.sql(SUM_ACTIVE_INVESTMENTS_BY_TYPE)
+                .bind("customerId", customerId)
+                .map(row -> toHoldingTotal(null, row))
+                .all();
+    }
+
+    /**
+     * Sum active investments per goal, investment type and symbol, like sumActiveInvestmentsByType.
+     * Goals without active investments have no row.
+     */
+    public Flux<HoldingTotal> sumActiveInvestmentsByGoal(Collection<Long> goalIds) {
+        return databaseClient.sql(SUM_ACTIVE_INVESTMENTS_BY_GOAL)
+                .bind("goalIds", goalIds)
+                .map(row -> toHoldingTotal(row.get("goal_id", Long.class), row))
+                .all();
+    }
+
+    private static HoldingTotal toHoldingTotal(Long goalId, Readable row) {
+        return new HoldingTotal(goalId,
+                row.get("investment_type", String.class),
+                row.get("symbol", String.class),
+                row.get("holdings", Long.class),
+                row.get("total_invested", BigDecimal.class),
+                row.get("quantity", BigDecimal.class),
+                row.get("own_value", BigDecimal.class));
+    }
+}
+
+// Made with Bob
@@ -0,0 +1,65 @@
+package com.gan.wcare.investment.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Symbol Price Batch Repository
+ * Price writes by symbol with JDBC batching, one row per symbol whatever the number of holders
+ */
+@Repository
+public class SymbolPriceBatchRepository {
+
+    private static final String UPDATE_PRICE =
+            "UPDATE wc_symbol_price SET price = ?, version = version + 1, last_updated_date = ? WHERE symbol = ?";
+
+    private static final String INSERT_PRICE =
+            "INSERT INTO wc_symbol_price (symbol, price, version, last_updated_date) VALUES (?, ?, 1, ?)";
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Update the price of each symbol, returns the rows updated per symbol (0 when the symbol has no price yet)
+     */
+    public int[] updatePrices(List<Map.Entry<String, BigDecimal>> prices, LocalDate updatedDate) {
+        Date date = Date.valueOf(updatedDate);
+        int[][] batches = jdbcTemplate.batchUpdate(UPDATE_PRICE, prices, BATCH_SIZE, (ps, price) -> {
+            ps.setBigDecimal(1, price.getValue());
+            ps.setDate(2, date);
+            ps.setString(3, price.getKey());
+        });
+
+        int[] rows = new int[prices.size()];
+        int index = 0;
+        for (int[] batch : batches) {
+            for (int count : batch) {
+                rows[index++] = count;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Insert the first price of new symbols
+     */
+    public void insertPrices(List<Map.Entry<String, BigDecimal>> prices, LocalDate updatedDate) {
+        Date date = Date.valueOf(updatedDate);
+        jdbcTemplate.batchUpdate(INSERT_PRICE, prices, BATCH_SIZE, (ps, price) -> {
+            ps.setString(1, price.getKey());
+            ps.setBigDecimal(2, price.getValue());
+            ps.setDate(3, date);
+        });
+    }
+}
+
+// Made with Bob
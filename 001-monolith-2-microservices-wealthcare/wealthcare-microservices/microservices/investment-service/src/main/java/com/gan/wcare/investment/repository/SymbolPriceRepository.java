@@ -0,0 +1,15 @@
+package com.gan.wcare.investment.repository;
+
+import com.gan.wcare.investment.model.SymbolPrice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Symbol Price Repository
+ * Data access layer for SymbolPrice entity
+ */
+@Repository
+public interface SymbolPriceRepository extends JpaRepository<SymbolPrice, String> {
+}
+
+// Made with Bob
@@ -0,0 +1,146 @@
+package com.gan.wcare.investment.service;
+
+import com.gan.wcare.investment.dto.GoalValueDTO;
+import com.gan.wcare.investment.dto.InvestmentDTO;
+import com.gan.wcare.investment.dto.PortfolioSummaryDTO;
+import com.gan.wcare.investment.model.Investment;
+import com.gan.wcare.investment.repository.HoldingTotal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Investment Converter
+ * Entity / DTO conversion shared by the blocking and the reactive investment services
+ */
+@Component
+public class InvestmentConverter {
+
+    @Autowired
+    private PriceWriteBuffer priceWriteBuffer;
+
+    /**
+     * Convert Investment entity to DTO
+     */
+    public InvestmentDTO toDTO(Investment investment) {
+        BigDecimal currentPrice = priceWriteBuffer.currentPriceOf(investment);
+        InvestmentDTO dto = new InvestmentDTO();
+        dto.setId(investment.getId());
+        dto.setCustomerId(investment.getCustomerId());
+        dto.setGoalId(investment.getGoalId());
+        dto.setInvestmentName(investment.getInvestmentName());
+        dto.setInvestmentType(investment.getInvestmentType());
+        dto.setSymbol(investment.getSymbol());
+        dto.setQuantity(investment.getQuantity());
+        dto.setPurchasePrice(investment.getPurchasePrice());
+        dto.setCurrentPrice(currentPrice);
+        dto.setPurchaseDate(investment.getPurchaseDate());
+        dto.setMaturityDate(investment.getMaturityDate());
+        dto.setDescription(investment.getDescription());
+        dto.setStatus(investment.getStatus());
+        dto.setCreatedDate(investment.getCreatedDate());
+        dto.setLastUpdatedDate(investment.getLastUpdatedDate());
+
+        // Set calculated fields
+        dto.setTotalInvestment(investment.getTotalInvestment());
+        dto.setCurrentValue(investment.getCurrentValue(currentPrice));
+        dto.setGainLoss(investment.getGainLoss(currentPrice));
+        dto.setGainLossPercentage(investment.getGainLossPercentage(currentPrice));
+
+        return dto;
+    }
+
+    /**
+     * Convert DTO to Investment entity
+     */
+    public Investment toEntity(InvestmentDTO dto) {
+        Investment investment = new Investment();
+        investment.setCustomerId(dto.getCustomerId());
+        investment.setGoalId(dto.getGoalId());
+        investment.setInvestmentName(dto.getInvestmentName());
+        investment.setInvestmentType(dto.getInvestmentType());
+        investment.setSymbol(dto.getSymbol());
+        investment.setQuantity(dto.getQuantity());
+        investment.setPurchasePrice(dto.getPurchasePrice());
+        investment.setCurrentPrice(dto.getCurrentPrice());
+        investment.setPurchaseDate(dto.getPurchaseDate());
+        investment.setMaturityDate(dto.getMaturityDate());
+        investment.setDescription(dto.getDescription());
+        investment.setStatus(dto.getStatus());
+        return investment;
+    }
+
+    /**
+     * Build the portfolio summary of a customer from its per type and symbol totals, at the current prices
+     */
+    public PortfolioSummaryDTO toPortfolioSummary(Long customerId, List<HoldingTotal> holdingTotals) {
+        PortfolioSummaryDTO summary = new PortfolioSummaryDTO(customerId);
+
+        int totalInvestments = 0;
+        BigDecimal totalInvested = BigDecimal.ZERO;
+        BigDecimal currentValue = BigDecimal.ZERO;
+
+        for (HoldingTotal holdingTotal : holdingTotals) {
+            BigDecimal value = valueOf(holdingTotal);
+            totalInvestments += holdingTotal.getHoldings().intValue();
+            totalInvested = totalInvested.add(holdingTotal.getTotalInvested());
+            currentValue = currentValue.add(value);
+
+            summary.getInvestmentsByType().merge(holdingTotal.getInvestmentType(), value, BigDecimal::add);
+            summary.getCountByType().merge(holdingTotal.getInvestmentType(), holdingTotal.getHoldings().intValue(), Integer::sum);
+        }
+
+        summary.setTotalInvestments(totalInvestments);
+        summary.setTotalInvested(totalInvested);
+        summary.setCurrentValue(currentValue);
+        summary.setTotalGainLoss(currentValue.subtract(totalInvested));
+
+        if (totalInvested.compareTo(BigDecimal.ZERO) > 0) {
+            BigDecimal gainLossPercentage = summary.getTotalGainLoss()
+                    .divide(totalInvested, 4, RoundingMode.HALF_UP)
+                    .multiply(new BigDecimal("100"));
+            summary.setTotalGainLossPercentage(gainLossPercentage);
+        }
+
+        return summary;
+    }
+
+    /**
+     * One value per requested goal, in request order, at the current prices; goals without active investments are zero
+     */
+    public List<GoalValueDTO> toGoalValues(Collection<Long> goalIds, List<HoldingTotal> holdingTotals) {
+        Map<Long, GoalValueDTO> values = new LinkedHashMap<>();
+        for (Long goalId : goalIds) {
+            values.put(goalId, new GoalValueDTO(goalId));
+        }
+
+        for (HoldingTotal holdingTotal : holdingTotals) {
+            GoalValueDTO value = values.get(holdingTotal.getGoalId());
+            value.setHoldings(value.getHoldings() + holdingTotal.getHoldings().intValue());
+            value.setTotalInvested(value.getTotalInvested().add(holdingTotal.getTotalInvested()));
+            value.setCurrentValue(value.getCurrentValue().add(valueOf(holdingTotal)));
+        }
+
+        return new ArrayList<>(values.values());
+    }
+
+    // Market priced holdings at the latest price of their symbol, buffered or written, else at their own price
+    private BigDecimal valueOf(HoldingTotal holdingTotal) {
+        if (holdingTotal.getSymbol() != null && Investment.MARKET_PRICED_TYPES.contains(holdingTotal.getInvestmentType())) {
+            BigDecimal price = priceWriteBuffer.priceOf(holdingTotal.getSymbol());
+            if (price != null) {
+                return price.multiply(holdingTotal.getQuantity());
+            }
+        }
+        return holdingTotal.getOwnValue();
+    }
+}
+
+// Made with Bob
@@ -1,21 +1,43 @@
 package com.gan.wcare.investment.service;
 
+import com.gan.wcare.investment.dto.GoalValueDTO;
 import com.gan.wcare.investment.dto.InvestmentDTO;
+import com.gan.wcare.investment.dto.KeysetPageDTO;
 import com.gan.wcare.investment.dto.PortfolioSummaryDTO;
+import com.gan.wcare.investment.dto.PriceIngestionResultDTO;
+import com.gan.wcare.investment.dto.PriceTickDTO;
 import com.gan.wcare.investment.model.Investment;
+import com.gan.wcare.investment.repository.HoldingTotal;
 import com.gan.wcare.investment.repository.InvestmentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Investment Service
@@ -27,17 +49,39 @@ public class InvestmentService {
 
     private static final Logger logger = LoggerFactory.getLogger(InvestmentService.class);
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_FLUSH_ROWS = 500;
+    static final int MAX_GOAL_IDS = 1000;
+
     @Autowired
     private InvestmentRepository investmentRepository;
 
     @Autowired
-    private WebClient.Builder webClientBuilder;
+    private ReferenceValidationService referenceValidationService;
+
+    @Autowired
+    private PortfolioSummaryCache portfolioSummaryCache;
+
+    @Autowired
+    private SymbolPriceService symbolPriceService;
+
+    @Autowired
+    private PriceWriteBuffer priceWriteBuffer;
+
+    @Autowired
+    private PortfolioEventBus portfolioEventBus;
+
+    @Autowired
+    private InvestmentConverter investmentConverter;
 
-    @Value("${services.customer-service.url}")
-    private String customerServiceUrl;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
-    @Value("${services.goal-service.url}")
-    private String goalServiceUrl;
+    @PersistenceContext
+    private EntityManager entityManager;
 
     /**
      * Get all investments
@@ -45,10 +89,61 @@ public class InvestmentService {
     public List<InvestmentDTO> getAllInvestments() {
         logger.info("Fetching all investments");
         return investmentRepository.findAll().stream()
-                .map(this::convertToDTO)
+                .map(investmentConverter::toDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get one page of investments, id is always the last sort key so pages do not overlap
+     */
+    @Transactional(readOnly = true)
+    public Page<InvestmentDTO> getInvestmentsPage(Pageable pageable) {
+        logger.info("Fetching investments page {} of size {}", pageable.getPageNumber(), pageable.getPageSize());
+        Sort sort = pageable.getSort();
+        if (sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by("id"));
+        }
+        return investmentRepository.findAll(PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort))
+                .map(investmentConverter::toDTO);
+    }
+
+    /**
+     * Get the investments after an id (keyset pagination, no offset scan)
+     */
+    @Transactional(readOnly = true)
+    public KeysetPageDTO<InvestmentDTO> getInvestmentsAfter(Long afterId, int size) {
+        logger.info("Fetching investments after id: {}", afterId);
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<InvestmentDTO> items = investmentRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit)).stream()
+                .map(investmentConverter::toDTO)
+                .collect(Collectors.toList());
+        Long nextAfterId = items.size() == limit ? items.get(items.size() - 1).getId() : null;
+        return new KeysetPageDTO<>(items, nextAfterId);
+    }
+
+    /**
+     * Write every investment as one JSON line, memory does not grow with the table
+     */
+    @Transactional(readOnly = true)
+    public long streamAllInvestments(OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<Investment> investments = investmentRepository.streamAll()) {
+            Iterator<Investment> iterator = investments.iterator();
+            while (iterator.hasNext()) {
+                Investment investment = iterator.next();
+                out.write(objectMapper.writeValueAsBytes(investmentConverter.toDTO(investment)));
+                out.write('\n');
+                entityManager.detach(investment);
+                if (++count % STREAM_FLUSH_ROWS == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        logger.info("Streamed {} investments", count);
+        return count;
+    }
+
     /**
      * Get investment by ID
      */
@@ -56,7 +151,7 @@ public class InvestmentService {
         logger.info("Fetching investment with id: {}", id);
         Investment investment = investmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Investment not found with id: " + id));
-        return convertToDTO(investment);
+        return investmentConverter.toDTO(investment);
     }
 
     /**
@@ -65,7 +160,7 @@ public class InvestmentService {
     public List<InvestmentDTO> getInvestmentsByCustomerId(Long customerId) {
         logger.info("Fetching investments for customer: {}", customerId);
         return investmentRepository.findByCustomerId(customerId).stream()
-                .map(this::convertToDTO)
+                .map(investmentConverter::toDTO)
                 .collect(Collectors.toList());
     }
 
@@ -75,7 +170,7 @@ public class InvestmentService {
     public List<InvestmentDTO> getActiveInvestmentsByCustomerId(Long customerId) {
         logger.info("Fetching active investments for customer: {}", customerId);
         return investmentRepository.findActiveInvestmentsByCustomerId(customerId).stream()
-                .map(this::convertToDTO)
+                .map(investmentConverter::toDTO)
                 .collect(Collectors.toList());
     }
 
@@ -85,7 +180,7 @@ public class InvestmentService {
     public List<InvestmentDTO> getInvestmentsByGoalId(Long goalId) {
         logger.info("Fetching investments for goal: {}", goalId);
         return investmentRepository.findByGoalId(goalId).stream()
-                .map(this::convertToDTO)
+                .map(investmentConverter::toDTO)
                 .collect(Collectors.toList());
     }
 
@@ -95,40 +190,66 @@ public class InvestmentService {
     public List<InvestmentDTO> getInvestmentsByType(String investmentType) {
         logger.info("Fetching investments of type: {}", investmentType);
         return investmentRepository.findByInvestmentType(investmentType).stream()
-                .map(this::convertToDTO)
+                .map(investmentConverter::toDTO)
                 .collect(Collectors.toList());
     }
 
     /**
      * Create new investment
+     * The remote checks run before the transaction, so no database connection is held while they wait
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public InvestmentDTO createInvestment(InvestmentDTO investmentDTO) {
         logger.info("Creating new investment for customer: {}", investmentDTO.getCustomerId());
 
         // Validate customer exists
-        validateCustomerExists(investmentDTO.getCustomerId());
+        referenceValidationService.validateCustomerExists(investmentDTO.getCustomerId());
 
         // Validate goal if provided
         if (investmentDTO.getGoalId() != null) {
-            validateGoalExists(investmentDTO.getGoalId());
+            referenceValidationService.validateGoalExists(investmentDTO.getGoalId());
         }
 
-        Investment investment = convertToEntity(investmentDTO);
+        return transactionTemplate.execute(status -> saveNewInvestment(investmentDTO));
+    }
+
+    private InvestmentDTO saveNewInvestment(InvestmentDTO investmentDTO) {
+        Investment investment = investmentConverter.toEntity(investmentDTO);
         investment.setCreatedDate(LocalDate.now());
         investment.setStatus("ACTIVE");
 
+        // Market priced holdings are valued at the symbol price, the given price only seeds a new symbol
+        if (investment.isMarketPriced()) {
+            if (investment.getCurrentPrice() != null) {
+                symbolPriceService.savePriceIfAbsent(investment.getSymbol(), investment.getCurrentPrice());
+            }
+            investment.setCurrentPrice(null);
+        }
+
         Investment savedInvestment = investmentRepository.save(investment);
+        portfolioSummaryCache.evict(savedInvestment.getCustomerId());
+        portfolioEventBus.publishHoldings(savedInvestment.getCustomerId());
         logger.info("Investment created successfully with id: {}", savedInvestment.getId());
 
-        return convertToDTO(savedInvestment);
+        return investmentConverter.toDTO(savedInvestment);
     }
 
     /**
      * Update investment
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public InvestmentDTO updateInvestment(Long id, InvestmentDTO investmentDTO) {
         logger.info("Updating investment with id: {}", id);
 
+        // Validate goal before the transaction
+        if (investmentDTO.getGoalId() != null) {
+            referenceValidationService.validateGoalExists(investmentDTO.getGoalId());
+        }
+
+        return transactionTemplate.execute(status -> saveInvestmentUpdate(id, investmentDTO));
+    }
+
+    private InvestmentDTO saveInvestmentUpdate(Long id, InvestmentDTO investmentDTO) {
         Investment existingInvestment = investmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Investment not found with id: " + id));
 
@@ -139,18 +260,24 @@ public class InvestmentService {
         if (investmentDTO.getQuantity() != null) {
             existingInvestment.setQuantity(investmentDTO.getQuantity());
         }
-        if (investmentDTO.getCurrentPrice() != null) {
-            existingInvestment.setCurrentPrice(investmentDTO.getCurrentPrice());
-        }
         if (investmentDTO.getGoalId() != null) {
-            validateGoalExists(investmentDTO.getGoalId());
             existingInvestment.setGoalId(investmentDTO.getGoalId());
         }
         if (investmentDTO.getDescription() != null) {
             existingInvestment.setDescription(investmentDTO.getDescription());
         }
         if (investmentDTO.getStatus() != null) {
+            // Sold or matured holdings keep the price they left the market at
+            if (existingInvestment.isMarketPriced()) {
+                existingInvestment.setCurrentPrice(priceWriteBuffer.currentPriceOf(existingInvestment));
+            }
             existingInvestment.setStatus(investmentDTO.getStatus());
+            if (existingInvestment.isMarketPriced()) {
+                existingInvestment.setCurrentPrice(null);
+            }
+        }
+        if (investmentDTO.getCurrentPrice() != null) {
+            applyCurrentPrice(existingInvestment, investmentDTO.getCurrentPrice());
         }
         if (investmentDTO.getMaturityDate() != null) {
             existingInvestment.setMaturityDate(investmentDTO.getMaturityDate());
@@ -159,9 +286,11 @@ public class InvestmentService {
         existingInvestment.setLastUpdatedDate(LocalDate.now());
 
         Investment updatedInvestment = investmentRepository.save(existingInvestment);
+        portfolioSummaryCache.evict(updatedInvestment.getCustomerId());
+        portfolioEventBus.publishHoldings(updatedInvestment.getCustomerId());
         logger.info("Investment updated successfully with id: {}", updatedInvestment.getId());
 
-        return convertToDTO(updatedInvestment);
+        return investmentConverter.toDTO(updatedInvestment);
     }
 
     /**
@@ -173,13 +302,45 @@ public class InvestmentService {
         Investment investment = investmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Investment not found with id: " + id));
 
+        // Symbol price, buffered and written behind: the holding row is not touched
+        if (investment.isMarketPriced()) {
+            priceWriteBuffer.offer(investment.getSymbol(), currentPrice);
+            return investmentConverter.toDTO(investment);
+        }
+
         investment.setCurrentPrice(currentPrice);
         investment.setLastUpdatedDate(LocalDate.now());
 
         Investment updatedInvestment = investmentRepository.save(investment);
+        portfolioSummaryCache.evict(updatedInvestment.getCustomerId());
+        portfolioEventBus.publishHoldings(updatedInvestment.getCustomerId());
         logger.info("Current price updated successfully for investment: {}", id);
 
-        return convertToDTO(updatedInvestment);
+        return investmentConverter.toDTO(updatedInvestment);
+    }
+
+    /**
+     * Apply a batch of market prices, one symbol price row per symbol
+     */
+    public PriceIngestionResultDTO ingestPrices(List<PriceTickDTO> ticks) {
+        logger.info("Ingesting {} price ticks", ticks.size());
+
+        // Last tick wins when a symbol is repeated
+        Map<String, BigDecimal> prices = new LinkedHashMap<>();
+        for (PriceTickDTO tick : ticks) {
+            prices.put(tick.getSymbol(), tick.getPrice());
+        }
+
+        List<String> newSymbols = priceWriteBuffer.saveNow(prices);
+
+        PriceIngestionResultDTO result = new PriceIngestionResultDTO();
+        result.setTicks(ticks.size());
+        result.setSymbols(prices.size());
+        result.setPricesUpdated(prices.size() - newSymbols.size());
+        result.setNewSymbols(newSymbols);
+
+        logger.info("Price ingestion saved {} symbols ({} new)", prices.size(), newSymbols.size());
+        return result;
     }
 
     /**
@@ -188,160 +349,97 @@ public class InvestmentService {
     public void deleteInvestment(Long id) {
         logger.info("Deleting investment with id: {}", id);
 
-        if (!investmentRepository.existsById(id)) {
-            throw new RuntimeException("Investment not found with id: " + id);
-        }
+        Investment investment = investmentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Investment not found with id: " + id));
 
-        investmentRepository.deleteById(id);
+        investmentRepository.delete(investment);
+        portfolioSummaryCache.evict(investment.getCustomerId());
+        portfolioEventBus.publishHoldings(investment.getCustomerId());
         logger.info("Investment deleted successfully with id: {}", id);
     }
 
     /**
-     * Get portfolio summary for a customer
+     * Get portfolio summary for a customer: per type and symbol totals cached per customer,
+     * valued at the latest prices (buffered ones included) on every read
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PortfolioSummaryDTO getPortfolioSummary(Long customerId) {
-        logger.info("Generating portfolio summary for customer: {}", customerId);
-
-        List<Investment> investments = investmentRepository.findActiveInvestmentsByCustomerId(customerId);
-
-        PortfolioSummaryDTO summary = new PortfolioSummaryDTO(customerId);
-        summary.setTotalInvestments(investments.size());
-
-        BigDecimal totalInvested = BigDecimal.ZERO;
-        BigDecimal currentValue = BigDecimal.ZERO;
-
-        for (Investment investment : investments) {
-            BigDecimal investmentAmount = investment.getTotalInvestment();
-            BigDecimal currentVal = investment.getCurrentValue();
-
-            totalInvested = totalInvested.add(investmentAmount);
-            currentValue = currentValue.add(currentVal);
+        long generation = portfolioSummaryCache.generation(customerId);
+        List<HoldingTotal> holdingTotals = portfolioSummaryCache.get(customerId);
+        if (holdingTotals == null) {
+            logger.info("Generating portfolio summary for customer: {}", customerId);
+            holdingTotals = investmentRepository.sumActiveInvestmentsByType(customerId);
+            portfolioSummaryCache.put(customerId, generation, holdingTotals);
+        }
+        return investmentConverter.toPortfolioSummary(customerId, holdingTotals);
+    }
 
-            summary.addInvestmentByType(investment.getInvestmentType(), currentVal);
+    /**
+     * Get the current value of each goal's active investments, in one aggregate query, at the latest prices
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<GoalValueDTO> getGoalValues(List<Long> goalIds) {
+        Set<Long> distinctGoalIds = distinctGoalIds(goalIds);
+        logger.info("Summing investments of {} goals", distinctGoalIds.size());
+        if (distinctGoalIds.isEmpty()) {
+            return List.of();
         }
 
-        summary.setTotalInvested(totalInvested);
-        summary.setCurrentValue(currentValue);
-        summary.setTotalGainLoss(currentValue.subtract(totalInvested));
+        List<HoldingTotal> holdingTotals = investmentRepository.sumActiveInvestmentsByGoal(distinctGoalIds);
+        return investmentConverter.toGoalValues(distinctGoalIds, holdingTotals);
+    }
 
-        if (totalInvested.compareTo(BigDecimal.ZERO) > 0) {
-            BigDecimal gainLossPercentage = summary.getTotalGainLoss()
-                    .divide(totalInvested, 4, BigDecimal.ROUND_HALF_UP)
-                    .multiply(new BigDecimal("100"));
-            summary.setTotalGainLossPercentage(gainLossPercentage);
+    /**
+     * Requested goal ids without nulls and repeats, at most MAX_GOAL_IDS
+     */
+    static Set<Long> distinctGoalIds(List<Long> goalIds) {
+        Set<Long> distinctGoalIds = goalIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (distinctGoalIds.size() > MAX_GOAL_IDS) {
+            throw new RuntimeException("At most " + MAX_GOAL_IDS + " goal ids per request");
         }
-
-        logger.info("Portfolio summary generated for customer: {}", customerId);
-        return summary;
+        return distinctGoalIds;
     }
 
     /**
      * Link investment to goal
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public InvestmentDTO linkInvestmentToGoal(Long investmentId, Long goalId) {
         logger.info("Linking investment {} to goal {}", investmentId, goalId);
 
+        // Validate goal before the transaction
+        referenceValidationService.validateGoalExists(goalId);
+
+        return transactionTemplate.execute(status -> saveGoalLink(investmentId, goalId));
+    }
+
+    private InvestmentDTO saveGoalLink(Long investmentId, Long goalId) {
         Investment investment = investmentRepository.findById(investmentId)
                 .orElseThrow(() -> new RuntimeException("Investment not found with id: " + investmentId));
 
-        validateGoalExists(goalId);
-
         investment.setGoalId(goalId);
         investment.setLastUpdatedDate(LocalDate.now());
 
         Investment updatedInvestment = investmentRepository.save(investment);
+        portfolioSummaryCache.evict(updatedInvestment.getCustomerId());
+        portfolioEventBus.publishHoldings(updatedInvestment.getCustomerId());
         logger.info("Investment linked to goal successfully");
 
-        return convertToDTO(updatedInvestment);
+        return investmentConverter.toDTO(updatedInvestment);
     }
 
     /**
-     * Validate customer exists via Customer Service
+     * Market priced holdings move the symbol price (every holder at once), others only their own price
      */
-    private void validateCustomerExists(Long customerId) {
-        try {
-            logger.debug("Validating customer exists: {}", customerId);
-            webClientBuilder.build()
-                    .get()
-                    .uri(customerServiceUrl + "/api/customers/" + customerId)
-                    .retrieve()
-                    .bodyToMono(Object.class)
-                    .block();
-            logger.debug("Customer validation successful: {}", customerId);
-        } catch (Exception e) {
-            logger.error("Customer validation failed for id: {}", customerId, e);
-            throw new RuntimeException("Customer not found with id: " + customerId);
+    private void applyCurrentPrice(Investment investment, BigDecimal currentPrice) {
+        if (investment.isMarketPriced()) {
+            priceWriteBuffer.offer(investment.getSymbol(), currentPrice);
+        } else {
+            investment.setCurrentPrice(currentPrice);
         }
     }
-
-    /**
-     * Validate goal exists via Goal Service
-     */
-    private void validateGoalExists(Long goalId) {
-        try {
-            logger.debug("Validating goal exists: {}", goalId);
-            webClientBuilder.build()
-                    .get()
-                    .uri(goalServiceUrl + "/api/goals/" + goalId)
-                    .retrieve()
-                    .bodyToMono(Object.class)
-                    .block();
-            logger.debug("Goal validation successful: {}", goalId);
-        } catch (Exception e) {
-            logger.error("Goal validation failed for id: {}", goalId, e);
-            throw new RuntimeException("Goal not found with id: " + goalId);
-        }
-    }
-
-    /**
-     * Convert Investment entity to DTO
-     */
-    private InvestmentDTO convertToDTO(Investment investment) {
-        InvestmentDTO dto = new InvestmentDTO();
-        dto.setId(investment.getId());
-        dto.setCustomerId(investment.getCustomerId());
-        dto.setGoalId(investment.getGoalId());
-        dto.setInvestmentName(investment.getInvestmentName());
-        dto.setInvestmentType(investment.getInvestmentType());
-        dto.setSymbol(investment.getSymbol());
-        dto.setQuantity(investment.getQuantity());
-        dto.setPurchasePrice(investment.getPurchasePrice());
-        dto.setCurrentPrice(investment.getCurrentPrice());
-        dto.setPurchaseDate(investment.getPurchaseDate());
-        dto.setMaturityDate(investment.getMaturityDate());
-        dto.setDescription(investment.getDescription());
-        dto.setStatus(investment.getStatus());
-        dto.setCreatedDate(investment.getCreatedDate());
-        dto.setLastUpdatedDate(investment.getLastUpdatedDate());
-
-        // Set calculated fields
-        dto.setTotalInvestment(investment.getTotalInvestment());
-        dto.setCurrentValue(investment.getCurrentValue());
-        dto.setGainLoss(investment.getGainLoss());
-        dto.setGainLossPercentage(investment.getGainLossPercentage());
-
-        return dto;
-    }
-
-    /**
-     * Convert DTO to Investment entity
-     */
-    private Investment convertToEntity(InvestmentDTO dto) {
-        Investment investment = new Investment();
-        investment.setCustomerId(dto.getCustomerId());
-        investment.setGoalId(dto.getGoalId());
-        investment.setInvestmentName(dto.getInvestmentName());
-        investment.setInvestmentType(dto.getInvestmentType());
-        investment.setSymbol(dto.getSymbol());
-        investment.setQuantity(dto.getQuantity());
-        investment.setPurchasePrice(dto.getPurchasePrice());
-        investment.setCurrentPrice(dto.getCurrentPrice());
-        investment.setPurchaseDate(dto.getPurchaseDate());
-        investment.setMaturityDate(dto.getMaturityDate());
-        investment.setDescription(dto.getDescription());
-        investment.setStatus(dto.getStatus());
-        return investment;
-    }
 }
 
 // Made with Bob
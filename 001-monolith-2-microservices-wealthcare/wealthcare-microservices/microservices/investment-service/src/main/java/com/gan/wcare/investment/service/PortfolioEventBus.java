@@ -0,0 +1,81 @@
+package com.gan.wcare.investment.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Portfolio Event Bus
+ * One in-process stream of price and holding changes, shared by every portfolio stream subscriber.
+ * Events only say what changed (symbols or a customer), subscribers read the new values themselves.
+ */
+@Component
+public class PortfolioEventBus {
+
+    private final Sinks.Many<PortfolioEvent> sink = Sinks.many().multicast().directBestEffort();
+
+    /**
+     * Prices of these symbols changed
+     */
+    public void publishPrices(Set<String> symbols) {
+        if (!symbols.isEmpty()) {
+            emit(new PortfolioEvent(symbols, null));
+        }
+    }
+
+    /**
+     * Holdings of this customer changed, published once the transaction has committed
+     */
+    public void publishHoldings(Long customerId) {
+        PortfolioEvent event = new PortfolioEvent(Collections.emptySet(), customerId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    emit(event);
+                }
+            });
+        } else {
+            emit(event);
+        }
+    }
+
+    public Flux<PortfolioEvent> events() {
+        return sink.asFlux();
+    }
+
+    // Sinks need serialized emissions, a subscriber that cannot keep up misses the event
+    private synchronized void emit(PortfolioEvent event) {
+        sink.tryEmitNext(event);
+    }
+
+    /**
+     * Portfolio Event
+     * Either changed symbols or the customer whose holdings changed
+     */
+    public static final class PortfolioEvent {
+
+        private final Set<String> symbols;
+        private final Long customerId;
+
+        private PortfolioEvent(Set<String> symbols, Long customerId) {
+            this.symbols = symbols;
+            this.customerId = customerId;
+        }
+
+        public Set<String> getSymbols() {
+            return symbols;
+        }
+
+        public Long getCustomerId() {
+            return customerId;
+        }
+    }
+}
+
+// Made with Bob
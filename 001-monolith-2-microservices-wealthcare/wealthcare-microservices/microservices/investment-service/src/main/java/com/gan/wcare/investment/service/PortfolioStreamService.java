@@ -0,0 +1,224 @@
+package com.gan.wcare.investment.service;
+
+import com.gan.wcare.investment.dto.HoldingValueDTO;
+import com.gan.wcare.investment.dto.PortfolioRevaluationDTO;
+import com.gan.wcare.investment.dto.PortfolioSummaryDTO;
+import com.gan.wcare.investment.model.Investment;
+import com.gan.wcare.investment.repository.InvestmentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Portfolio Stream Service
+ * Live revaluation of a customer's portfolio as Server-Sent Events. Every subscriber listens to the
+ * shared PortfolioEventBus and keeps its customer's active holdings in memory: a price change is
+ * revalued without a query, a holding change reloads that one customer. Changes are coalesced per
+ * subscriber (latest signal, at most one event per coalesce-interval), and each event only carries
+ * the holdings whose value changed since the previous one, so a slow client skips intermediate states.
+ */
+@Service
+public class PortfolioStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioStreamService.class);
+
+    @Autowired
+    private InvestmentRepository investmentRepository;
+
+    @Autowired
+    private PriceWriteBuffer priceWriteBuffer;
+
+    @Autowired
+    private PortfolioEventBus portfolioEventBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${services.portfolio-stream.coalesce-interval:500ms}")
+    private Duration coalesceInterval;
+
+    @Value("${services.portfolio-stream.heartbeat-interval:15s}")
+    private Duration heartbeatInterval;
+
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("portfolio.stream.subscribers", subscribers, AtomicInteger::get)
+                .description("Open portfolio streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stream the revaluations of a customer's portfolio, starting with a snapshot
+     */
+    public Flux<ServerSentEvent<PortfolioRevaluationDTO>> streamPortfolio(Long customerId) {
+        return Flux.defer(() -> {
+            PortfolioView view = new PortfolioView(customerId);
+
+            Flux<Boolean> changes = portfolioEventBus.events()
+                    .filter(view::isAffectedBy)
+                    .map(view::markChanged)
+                    .onBackpressureLatest()
+                    .sample(coalesceInterval)
+                    .onBackpressureLatest();
+
+            Flux<ServerSentEvent<PortfolioRevaluationDTO>> revaluations = Flux.concat(Mono.just(Boolean.TRUE), changes)
+                    .concatMap(change -> Mono.fromCallable(view::revalue).subscribeOn(Schedulers.boundedElastic()), 1)
+                    .map(revaluation -> ServerSentEvent.builder(revaluation)
+                            .id(String.valueOf(view.nextSequence()))
+                            .event(revaluation.getSnapshot() ? "snapshot" : "revaluation")
+                            .build());
+
+            Flux<ServerSentEvent<PortfolioRevaluationDTO>> heartbeats = Flux.interval(heartbeatInterval)
+                    .map(tick -> ServerSentEvent.<PortfolioRevaluationDTO>builder().comment("heartbeat").build());
+
+            return Flux.merge(revaluations, heartbeats)
+                    .doOnSubscribe(subscription -> {
+                        subscribers.incrementAndGet();
+                        logger.info("Portfolio stream opened for customer: {}", customerId);
+                    })
+                    .doFinally(signal -> {
+                        subscribers.decrementAndGet();
+                        logger.info("Portfolio stream closed for customer: {} ({})", customerId, signal);
+                    });
+        });
+    }
+
+    /**
+     * Holdings and last sent values of one subscriber
+     */
+    private class PortfolioView {
+
+        private final Long customerId;
+        private final AtomicBoolean reload = new AtomicBoolean(true);
+        private volatile Set<String> symbols = Collections.emptySet();
+        private List<Investment> holdings = Collections.emptyList();
+        private final Map<Long, BigDecimal> sentValues = new HashMap<>();
+        private boolean sentSnapshot;
+        private long sequence;
+
+        private PortfolioView(Long customerId) {
+            this.customerId = customerId;
+        }
+
+        private boolean isAffectedBy(PortfolioEventBus.PortfolioEvent event) {
+            if (event.getCustomerId() != null) {
+                return event.getCustomerId().equals(customerId);
+            }
+            Set<String> held = symbols;
+            for (String symbol : event.getSymbols()) {
+                if (held.contains(symbol)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Kept apart from the signal, so a coalesced price signal still reloads after a holding change
+        private Boolean markChanged(PortfolioEventBus.PortfolioEvent event) {
+            if (event.getCustomerId() != null) {
+                reload.set(true);
+            }
+            return Boolean.TRUE;
+        }
+
+        private long nextSequence() {
+            return ++sequence;
+        }
+
+        /**
+         * Values the holdings at the current prices, null when nothing changed since the last event
+         */
+        private PortfolioRevaluationDTO revalue() {
+            if (reload.getAndSet(false)) {
+                holdings = investmentRepository.findActiveInvestmentsByCustomerId(customerId);
+                Set<String> held = new HashSet<>();
+                for (Investment investment : holdings) {
+                    if (investment.isMarketPriced()) {
+                        held.add(investment.getSymbol());
+                    }
+                }
+                symbols = held;
+            }
+
+            PortfolioRevaluationDTO revaluation = new PortfolioRevaluationDTO(customerId, !sentSnapshot);
+            PortfolioSummaryDTO summary = new PortfolioSummaryDTO(customerId);
+            BigDecimal totalInvested = BigDecimal.ZERO;
+            BigDecimal currentValue = BigDecimal.ZERO;
+            Set<Long> removed = new HashSet<>(sentValues.keySet());
+
+            for (Investment investment : holdings) {
+                BigDecimal price = priceWriteBuffer.currentPriceOf(investment);
+                BigDecimal value = investment.getCurrentValue(price);
+                totalInvested = totalInvested.add(investment.getTotalInvestment());
+                currentValue = currentValue.add(value);
+                summary.getInvestmentsByType().merge(investment.getInvestmentType(), value, BigDecimal::add);
+                summary.getCountByType().merge(investment.getInvestmentType(), 1, Integer::sum);
+                removed.remove(investment.getId());
+
+                BigDecimal sent = sentValues.put(investment.getId(), value);
+                if (!sentSnapshot || sent == null || sent.compareTo(value) != 0) {
+                    revaluation.getHoldings().add(toHoldingValue(investment, price, value));
+                }
+            }
+
+            if (sentSnapshot && revaluation.getHoldings().isEmpty() && removed.isEmpty()) {
+                return null;
+            }
+            for (Long investmentId : removed) {
+                sentValues.remove(investmentId);
+                revaluation.getRemovedInvestmentIds().add(investmentId);
+            }
+
+            summary.setTotalInvestments(holdings.size());
+            summary.setTotalInvested(totalInvested);
+            summary.setCurrentValue(currentValue);
+            summary.setTotalGainLoss(currentValue.subtract(totalInvested));
+            if (totalInvested.compareTo(BigDecimal.ZERO) > 0) {
+                summary.setTotalGainLossPercentage(summary.getTotalGainLoss()
+                        .divide(totalInvested, 4, RoundingMode.HALF_UP)
+                        .multiply(new BigDecimal("100")));
+            }
+            revaluation.setSummary(summary);
+            sentSnapshot = true;
+            return revaluation;
+        }
+
+        private HoldingValueDTO toHoldingValue(Investment investment, BigDecimal price, BigDecimal value) {
+            HoldingValueDTO holding = new HoldingValueDTO();
+            holding.setInvestmentId(investment.getId());
+            holding.setSymbol(investment.getSymbol());
+            holding.setInvestmentType(investment.getInvestmentType());
+            holding.setCurrentPrice(price);
+            holding.setCurrentValue(value);
+            holding.setGainLoss(investment.getGainLoss(price));
+            holding.setGainLossPercentage(investment.getGainLossPercentage(price));
+            return holding;
+        }
+    }
+}
+
+// Made with Bob
@@ -0,0 +1,98 @@
+package com.gan.wcare.investment.service;
+
+import com.gan.wcare.investment.repository.HoldingTotal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Portfolio Summary Cache
+ * Per customer totals a portfolio summary is valued from (filled by InvestmentService.getPortfolioSummary,
+ * or by ReactiveInvestmentService in the reactive profile). They hold quantities, market prices are applied
+ * on every read, so only holding writes evict them.
+ * Every write evicts the summary of its customer, again after commit so that a summary read
+ * while the transaction was still open is not kept. Each eviction moves the customer's generation:
+ * totals read before it are not put back.
+ */
+@Component
+public class PortfolioSummaryCache {
+
+    public static final String CACHE_NAME = "portfolio-summary";
+
+    // Striped per customer, a shared stripe only costs an extra miss
+    private static final int GENERATION_STRIPES = 4096;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * Generation of a customer's totals, read before querying them and handed back to put
+     */
+    public long generation(Long customerId) {
+        return generations.get(stripe(customerId));
+    }
+
+    /**
+     * Cached totals of a customer, null when absent
+     */
+    @SuppressWarnings("unchecked")
+    public List<HoldingTotal> get(Long customerId) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        return cache == null ? null : cache.get(customerId, List.class);
+    }
+
+    /**
+     * Cache the totals of a customer, unless evicted since they were read (generation changed)
+     */
+    public void put(Long customerId, long generation, List<HoldingTotal> holdingTotals) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null || generation(customerId) != generation) {
+            return;
+        }
+        cache.put(customerId, List.copyOf(holdingTotals));
+        // An eviction between the check and the put may have run first, remove what it missed
+        if (generation(customerId) != generation) {
+            cache.evict(customerId);
+        }
+    }
+
+    /**
+     * Evict the totals of a customer
+     */
+    public void evict(Long customerId) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null || customerId == null) {
+            return;
+        }
+        evict(cache, customerId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(cache, customerId);
+                }
+            });
+        }
+    }
+
+    // Generation first, so a reader checking after its put sees it whenever its put may have come after this eviction
+    private void evict(Cache cache, Long customerId) {
+        generations.incrementAndGet(stripe(customerId));
+        cache.evict(customerId);
+    }
+
+    private static int stripe(Long customerId) {
+        return Long.hashCode(customerId) & (GENERATION_STRIPES - 1);
+    }
+}
+
+// Made with Bob
@@ -0,0 +1,219 @@
+package com.gan.wcare.investment.service;
+
+import com.gan.wcare.investment.model.Investment;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Price Write Buffer
+ * Write behind buffer for single price updates: only the last price of each symbol is kept and the
+ * pending symbols are written in one batch every flush-interval, or as soon as batch-size symbols are pending.
+ * Past max-pending symbols the updating thread waits for a flush (back pressure).
+ * Prices are read through this buffer, so a buffered price is visible before it is written: investment responses
+ * and the portfolio and goal totals (summed in the database per symbol, valued here) never wait for a flush.
+ */
+@Component
+public class PriceWriteBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceWriteBuffer.class);
+
+    @Autowired
+    private SymbolPriceService symbolPriceService;
+
+    @Autowired
+    private SymbolPriceIndex symbolPriceIndex;
+
+    @Autowired
+    private PortfolioEventBus portfolioEventBus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${services.price-buffer.batch-size:500}")
+    private int batchSize;
+
+    @Value("${services.price-buffer.max-pending:10000}")
+    private int maxPending;
+
+    private final Map<String, BigDecimal> pending = new ConcurrentHashMap<>();
+
+    // Batch being written, still read until the price index has it
+    private volatile Map<String, BigDecimal> inFlight = Collections.emptyMap();
+
+    // One writer at a time, so a batch never overwrites a newer one
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private TransactionTemplate transactionTemplate;
+    private Counter updates;
+    private Counter writes;
+    private Timer flushTimer;
+    private DistributionSummary flushSize;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        updates = Counter.builder("price.buffer.updates")
+                .description("Price updates received")
+                .register(meterRegistry);
+        writes = Counter.builder("price.buffer.writes")
+                .description("Buffered symbol prices written")
+                .register(meterRegistry);
+        Gauge.builder("price.buffer.coalescing.ratio", this, buffer -> buffer.coalescingRatio())
+                .description("Price updates received per symbol price written")
+                .register(meterRegistry);
+        Gauge.builder("price.buffer.pending", pending, Map::size)
+                .description("Symbols waiting to be written")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("price.buffer.flush")
+                .description("Time to write one batch")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        flushSize = DistributionSummary.builder("price.buffer.flush.size")
+                .description("Symbols written per batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Buffer the price of a symbol, replacing a pending one
+     */
+    public void offer(String symbol, BigDecimal price) {
+        pending.put(symbol, price);
+        updates.increment();
+        portfolioEventBus.publishPrices(Set.of(symbol));
+
+        int size = pending.size();
+        if (size >= maxPending) {
+            flush();
+        } else if (size >= batchSize && flushLock.tryLock()) {
+            try {
+                flushLocked();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Write prices now (bulk ingestion), pending prices of the same symbols are older and dropped.
+     * Returns the symbols that had no price before.
+     */
+    public List<String> saveNow(Map<String, BigDecimal> prices) {
+        flushLock.lock();
+        try {
+            inFlight = prices;
+            pending.keySet().removeAll(prices.keySet());
+            return save(prices);
+        } finally {
+            inFlight = Collections.emptyMap();
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Price used to value a holding, buffered prices first
+     */
+    public BigDecimal currentPriceOf(Investment investment) {
+        if (investment.isMarketPriced()) {
+            BigDecimal price = bufferedPriceOf(investment.getSymbol());
+            if (price != null) {
+                return price;
+            }
+        }
+        return symbolPriceIndex.currentPriceOf(investment);
+    }
+
+    /**
+     * Latest price of a symbol, buffered or written, null when it has none
+     */
+    public BigDecimal priceOf(String symbol) {
+        BigDecimal price = bufferedPriceOf(symbol);
+        return price != null ? price : symbolPriceIndex.priceOf(symbol);
+    }
+
+    @Scheduled(fixedDelayString = "${services.price-buffer.flush-interval:PT1S}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    private void flushLocked() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Published before leaving pending, a price that changes meanwhile stays pending for the next batch
+        Map<String, BigDecimal> batch = new LinkedHashMap<>(pending);
+        inFlight = batch;
+        batch.forEach(pending::remove);
+
+        long start = System.nanoTime();
+        try {
+            save(batch);
+            writes.increment(batch.size());
+            flushSize.record(batch.size());
+        } catch (RuntimeException e) {
+            // Retried with the next flush unless a newer price came in meanwhile
+            batch.forEach(pending::putIfAbsent);
+            logger.error("Unable to write {} buffered prices: {}", batch.size(), e.getMessage());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            inFlight = Collections.emptyMap();
+        }
+    }
+
+    // Own transaction: committed (and in the price index) before the lock is released
+    private List<String> save(Map<String, BigDecimal> prices) {
+        return transactionTemplate.execute(status -> symbolPriceService.savePrices(prices));
+    }
+
+    // Pending first, then the batch being written
+    private BigDecimal bufferedPriceOf(String symbol) {
+        BigDecimal price = pending.get(symbol);
+        return price != null ? price : inFlight.get(symbol);
+    }
+
+    private double coalescingRatio() {
+        double written = writes.count();
+        return written == 0 ? 0 : updates.count() / written;
+    }
+}
+
+// Made with Bob
@@ -0,0 +1,389 @@
+package com.gan.wcare.investment.service;
+
+import com.gan.wcare.investment.dto.GoalValueDTO;
+import com.gan.wcare.investment.dto.InvestmentDTO;
+import com.gan.wcare.investment.dto.KeysetPageDTO;
+import com.gan.wcare.investment.dto.PortfolioSummaryDTO;
+import com.gan.wcare.investment.dto.PriceIngestionResultDTO;
+import com.gan.wcare.investment.dto.PriceTickDTO;
+import com.gan.wcare.investment.model.Investment;
+import com.gan.wcare.investment.repository.ReactiveInvestmentRepository;
+import com.gan.wcare.investment.repository.ReactivePortfolioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Reactive Investment Service
+ * Non-blocking equivalent of InvestmentService for the reactive profile: R2DBC for investments,
+ * WebClient for customer / goal validation, in-memory prices. Symbol price writes still go through
+ * the JDBC batch path (SymbolPriceService, PriceWriteBuffer) and run on the bounded elastic scheduler.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveInvestmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveInvestmentService.class);
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    @Autowired
+    private ReactiveInvestmentRepository reactiveInvestmentRepository;
+
+    @Autowired
+    private ReactivePortfolioRepository reactivePortfolioRepository;
+
+    @Autowired
+    private ReferenceValidationService referenceValidationService;
+
+    @Autowired
+    private PortfolioSummaryCache portfolioSummaryCache;
+
+    @Autowired
+    private SymbolPriceService symbolPriceService;
+
+    @Autowired
+    private PriceWriteBuffer priceWriteBuffer;
+
+    @Autowired
+    private PortfolioEventBus portfolioEventBus;
+
+    @Autowired
+    private InvestmentConverter investmentConverter;
+
+    @Autowired
+    private InvestmentService investmentService;
+
+    @Autowired
+    private TransactionalOperator reactiveTransactionalOperator;
+
+    /**
+     * Get all investments
+     */
+    public Flux<InvestmentDTO> getAllInvestments() {
+        logger.info("Fetching all investments");
+        return reactiveInvestmentRepository.findAll()
+                .map(investmentConverter::toDTO);
+    }
+
+    /**
+     * Get one page of investments, id is always the last sort key so pages do not overlap
+     */
+    public Mono<Page<InvestmentDTO>> getInvestmentsPage(Pageable pageable) {
+        logger.info("Fetching investments page {} of size {}", pageable.getPageNumber(), pageable.getPageSize());
+        Sort sort = pageable.getSort();
+        if (sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by("id"));
+        }
+        Pageable sortedPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+        return reactiveInvestmentRepository.findAllBy(sortedPageable)
+                .map(investmentConverter::toDTO)
+                .collectList()
+                .zipWith(reactiveInvestmentRepository.count())
+                .map(page -> new PageImpl<>(page.getT1(), sortedPageable, page.getT2()));
+    }
+
+    /**
+     * Get the investments after an id (keyset pagination, no offset scan)
+     */
+    public Mono<KeysetPageDTO<InvestmentDTO>> getInvestmentsAfter(Long afterId, int size) {
+        logger.info("Fetching investments after id: {}", afterId);
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return reactiveInvestmentRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.ofSize(limit))
+                .map(investmentConverter::toDTO)
+                .collectList()
+                .map(items -> new KeysetPageDTO<>(items,
+                        items.size() == limit ? items.get(items.size() - 1).getId() : null));
+    }
+
+    /**
+     * Every investment in id order, rows are read as the client consumes them
+     */
+    public Flux<InvestmentDTO> streamAllInvestments() {
+        logger.info("Streaming all investments");
+        return reactiveInvestmentRepository.findAll(Sort.by("id"))
+                .map(investmentConverter::toDTO);
+    }
+
+    /**
+     * Get investment by ID
+     */
+    public Mono<InvestmentDTO> getInvestmentById(Long id) {
+        logger.info("Fetching investment with id: {}", id);
+        return findInvestment(id)
+                .map(investmentConverter::toDTO);
+    }
+
+    /**
+     * Get investments by customer ID
+     */
+    public Flux<InvestmentDTO> getInvestmentsByCustomerId(Long customerId) {
+        logger.info("Fetching investments for customer: {}", customerId);
+        return reactiveInvestmentRepository.findByCustomerId(customerId)
+                .map(investmentConverter::toDTO);
+    }
+
+    /**
+     * Get active investments by customer ID
+     */
+    public Flux<InvestmentDTO> getActiveInvestmentsByCustomerId(Long customerId) {
+        logger.info("Fetching active investments for customer: {}", customerId);
+        return reactiveInvestmentRepository.findActiveInvestmentsByCustomerId(customerId)
+                .map(investmentConverter::toDTO);
+    }
+
+    /**
+     * Get investments by goal ID
+     */
+    public Flux<InvestmentDTO> getInvestmentsByGoalId(Long goalId) {
+        logger.info("Fetching investments for goal: {}", goalId);
+        return reactiveInvestmentRepository.findByGoalId(goalId)
+                .map(investmentConverter::toDTO);
+    }
+
+    /**
+     * Get investments by type
+     */
+    public Flux<InvestmentDTO> getInvestmentsByType(String investmentType) {
+        logger.info("Fetching investments of type: {}", investmentType);
+        return reactiveInvestmentRepository.findByInvestmentType(investmentType)
+                .map(investmentConverter::toDTO);
+    }
+
+    /**
+     * Create new investment, the customer and goal are validated concurrently before the insert
+     */
+    public Mono<InvestmentDTO> createInvestment(InvestmentDTO investmentDTO) {
+        logger.info("Creating new investment for customer: {}", investmentDTO.getCustomerId());
+
+        Mono<Void> validations = referenceValidationService.validateCustomerExistsAsync(investmentDTO.getCustomerId());
+        if (investmentDTO.getGoalId() != null) {
+            validations = Mono.when(validations, referenceValidationService.validateGoalExistsAsync(investmentDTO.getGoalId()));
+        }
+
+        return validations
+                .then(Mono.defer(() -> {
+                    Investment investment = investmentConverter.toEntity(investmentDTO);
+                    investment.setCreatedDate(LocalDate.now());
+                    investment.setStatus("ACTIVE");
+
+                    // Market priced holdings are valued at the symbol price, the given price only seeds a new symbol
+                    Mono<Void> seedPrice = Mono.empty();
+                    if (investment.isMarketPriced()) {
+                        if (investment.getCurrentPrice() != null) {
+                            String symbol = investment.getSymbol();
+                            BigDecimal price = investment.getCurrentPrice();
+                            seedPrice = Mono.<Void>fromRunnable(() -> symbolPriceService.savePriceIfAbsent(symbol, price))
+                                    .subscribeOn(Schedulers.boundedElastic());
+                        }
+                        investment.setCurrentPrice(null);
+                    }
+                    return seedPrice.then(reactiveInvestmentRepository.save(investment));
+                }))
+                .doOnNext(savedInvestment -> {
+                    holdingsChanged(savedInvestment);
+                    logger.info("Investment created successfully with id: {}", savedInvestment.getId());
+                })
+                .map(investmentConverter::toDTO);
+    }
+
+    /**
+     * Update investment
+     */
+    public Mono<InvestmentDTO> updateInvestment(Long id, InvestmentDTO investmentDTO) {
+        logger.info("Updating investment with id: {}", id);
+
+        Mono<Void> goalValidation = investmentDTO.getGoalId() != null
+                ? referenceValidationService.validateGoalExistsAsync(investmentDTO.getGoalId())
+                : Mono.empty();
+
+        return findInvestment(id)
+                .flatMap(existingInvestment -> goalValidation.then(Mono.defer(() -> {
+                    // Update fields
+                    if (investmentDTO.getInvestmentName() != null) {
+                        existingInvestment.setInvestmentName(investmentDTO.getInvestmentName());
+                    }
+                    if (investmentDTO.getQuantity() != null) {
+                        existingInvestment.setQuantity(investmentDTO.getQuantity());
+                    }
+                    if (investmentDTO.getGoalId() != null) {
+                        existingInvestment.setGoalId(investmentDTO.getGoalId());
+                    }
+                    if (investmentDTO.getDescription() != null) {
+                        existingInvestment.setDescription(investmentDTO.getDescription());
+                    }
+                    if (investmentDTO.getStatus() != null) {
+                        // Sold or matured holdings keep the price they left the market at
+                        if (existingInvestment.isMarketPriced()) {
+                            existingInvestment.setCurrentPrice(priceWriteBuffer.currentPriceOf(existingInvestment));
+                        }
+                        existingInvestment.setStatus(investmentDTO.getStatus());
+                        if (existingInvestment.isMarketPriced()) {
+                            existingInvestment.setCurrentPrice(null);
+                        }
+                    }
+                    if (investmentDTO.getMaturityDate() != null) {
+                        existingInvestment.setMaturityDate(investmentDTO.getMaturityDate());
+                    }
+                    existingInvestment.setLastUpdatedDate(LocalDate.now());
+
+                    Mono<Void> priceUpdate = investmentDTO.getCurrentPrice() != null
+                            ? applyCurrentPrice(existingInvestment, investmentDTO.getCurrentPrice())
+                            : Mono.empty();
+                    return priceUpdate.then(reactiveInvestmentRepository.save(existingInvestment));
+                })))
+                .as(reactiveTransactionalOperator::transactional)
+                .doOnNext(updatedInvestment -> {
+                    holdingsChanged(updatedInvestment);
+                    logger.info("Investment updated successfully with id: {}", updatedInvestment.getId());
+                })
+                .map(investmentConverter::toDTO);
+    }
+
+    /**
+     * Update current price for an investment
+     */
+    public Mono<InvestmentDTO> updateCurrentPrice(Long id, BigDecimal currentPrice) {
+        logger.info("Updating current price for investment: {}", id);
+
+        return findInvestment(id)
+                .flatMap(investment -> {
+                    // Symbol price, buffered and written behind: the holding row is not touched
+                    if (investment.isMarketPriced()) {
+                        return offerPrice(investment.getSymbol(), currentPrice)
+                                .thenReturn(investment);
+                    }
+
+                    investment.setCurrentPrice(currentPrice);
+                    investment.setLastUpdatedDate(LocalDate.now());
+                    return reactiveInvestmentRepository.save(investment)
+                            .doOnNext(updatedInvestment -> {
+                                holdingsChanged(updatedInvestment);
+                                logger.info("Current price updated successfully for investment: {}", id);
+                            });
+                })
+                .map(investmentConverter::toDTO);
+    }
+
+    /**
+     * Apply a batch of market prices, one JDBC batch per request (see InvestmentService.ingestPrices)
+     */
+    public Mono<PriceIngestionResultDTO> ingestPrices(List<PriceTickDTO> ticks) {
+        return Mono.fromCallable(() -> investmentService.ingestPrices(ticks))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Delete investment
+     */
+    public Mono<Void> deleteInvestment(Long id) {
+        logger.info("Deleting investment with id: {}", id);
+
+        return findInvestment(id)
+                .flatMap(investment -> reactiveInvestmentRepository.delete(investment).thenReturn(investment))
+                .as(reactiveTransactionalOperator::transactional)
+                .doOnNext(investment -> {
+                    holdingsChanged(investment);
+                    logger.info("Investment deleted successfully with id: {}", id);
+                })
+                .then();
+    }
+
+    /**
+     * Get portfolio summary for a customer, from the same cache as the blocking service
+     */
+    public Mono<PortfolioSummaryDTO> getPortfolioSummary(Long customerId) {
+        return Mono.defer(() -> {
+                    long generation = portfolioSummaryCache.generation(customerId);
+                    return Mono.justOrEmpty(portfolioSummaryCache.get(customerId))
+                            .switchIfEmpty(Mono.defer(() -> {
+                                logger.info("Generating portfolio summary for customer: {}", customerId);
+                                return reactivePortfolioRepository.sumActiveInvestmentsByType(customerId)
+                                        .collectList()
+                                        .doOnNext(holdingTotals -> portfolioSummaryCache.put(customerId, generation, holdingTotals));
+                            }));
+                })
+                .map(holdingTotals -> investmentConverter.toPortfolioSummary(customerId, holdingTotals));
+    }
+
+    /**
+     * Get the current value of each goal's active investments, in one aggregate query
+     */
+    public Mono<List<GoalValueDTO>> getGoalValues(List<Long> goalIds) {
+        return Mono.fromCallable(() -> InvestmentService.distinctGoalIds(goalIds))
+                .flatMap(distinctGoalIds -> {
+                    logger.info("Summing investments of {} goals", distinctGoalIds.size());
+                    if (distinctGoalIds.isEmpty()) {
+                        return Mono.just(List.<GoalValueDTO>of());
+                    }
+                    return reactivePortfolioRepository.sumActiveInvestmentsByGoal(distinctGoalIds)
+                            .collectList()
+                            .map(holdingTotals -> investmentConverter.toGoalValues(distinctGoalIds, holdingTotals));
+                });
+    }
+
+    /**
+     * Link investment to goal
+     */
+    public Mono<InvestmentDTO> linkInvestmentToGoal(Long investmentId, Long goalId) {
+        logger.info("Linking investment {} to goal {}", investmentId, goalId);
+
+        return findInvestment(investmentId)
+                .flatMap(investment -> referenceValidationService.validateGoalExistsAsync(goalId)
+                        .then(Mono.defer(() -> {
+                            investment.setGoalId(goalId);
+                            investment.setLastUpdatedDate(LocalDate.now());
+                            return reactiveInvestmentRepository.save(investment);
+                        })))
+                .doOnNext(updatedInvestment -> {
+                    holdingsChanged(updatedInvestment);
+                    logger.info("Investment linked to goal successfully");
+                })
+                .map(investmentConverter::toDTO);
+    }
+
+    private Mono<Investment> findInvestment(Long id) {
+        return reactiveInvestmentRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Investment not found with id: " + id)));
+    }
+
+    /**
+     * Market priced holdings move the symbol price (every holder at once), others only their own price
+     */
+    private Mono<Void> applyCurrentPrice(Investment investment, BigDecimal currentPrice) {
+        if (investment.isMarketPriced()) {
+            return offerPrice(investment.getSymbol(), currentPrice);
+        }
+        investment.setCurrentPrice(currentPrice);
+        return Mono.empty();
+    }
+
+    // A full buffer is flushed by the offering thread, which must not be an event loop
+    private Mono<Void> offerPrice(String symbol, BigDecimal price) {
+        return Mono.<Void>fromRunnable(() -> priceWriteBuffer.offer(symbol, price))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Called once the write has committed
+    private void holdingsChanged(Investment investment) {
+        portfolioSummaryCache.evict(investment.getCustomerId());
+        portfolioEventBus.publishHoldings(investment.getCustomerId());
+    }
+}
+
+// Made with Bob
@@ -0,0 +1,147 @@
+package com.gan.wcare.investment.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Reference Validation Service
+ * Checks that customer and goal ids exist in Customer Service / Goal Service with a HEAD request.
+ * Answers are kept in bounded caches (found for positive-ttl, not found for negative-ttl), so a
+ * bulk entry for one customer makes one remote call. Service errors are not cached.
+ * The blocking and the reactive (non-blocking) checks share the same caches and in-flight calls.
+ * A blocking check waits on the request thread for the remote call itself; it never borrows a pool
+ * thread to block on, so it parks cheaply when requests run on virtual threads.
+ */
+@Service
+public class ReferenceValidationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceValidationService.class);
+
+    @Autowired
+    @Qualifier("customerServiceWebClient")
+    private WebClient customerServiceWebClient;
+
+    @Autowired
+    @Qualifier("goalServiceWebClient")
+    private WebClient goalServiceWebClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${services.existence-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${services.existence-cache.positive-ttl:10m}")
+    private Duration positiveTtl;
+
+    @Value("${services.existence-cache.negative-ttl:30s}")
+    private Duration negativeTtl;
+
+    private AsyncCache<Long, Boolean> customerExistsCache;
+    private AsyncCache<Long, Boolean> goalExistsCache;
+
+    @PostConstruct
+    public void init() {
+        customerExistsCache = createCache("customer-exists");
+        goalExistsCache = createCache("goal-exists");
+    }
+
+    /**
+     * Validate customer exists via Customer Service
+     */
+    public void validateCustomerExists(Long customerId) {
+        validateCustomerExistsAsync(customerId).block();
+    }
+
+    /**
+     * Validate goal exists via Goal Service
+     */
+    public void validateGoalExists(Long goalId) {
+        validateGoalExistsAsync(goalId).block();
+    }
+
+    /**
+     * Validate customer exists via Customer Service, without blocking
+     */
+    public Mono<Void> validateCustomerExistsAsync(Long customerId) {
+        return validateAsync(customerExistsCache, customerId,
+                id -> exists(customerServiceWebClient, "/api/customers/{id}", id, "Customer"),
+                "Customer not found with id: " + customerId);
+    }
+
+    /**
+     * Validate goal exists via Goal Service, without blocking
+     */
+    public Mono<Void> validateGoalExistsAsync(Long goalId) {
+        return validateAsync(goalExistsCache, goalId,
+                id -> exists(goalServiceWebClient, "/api/goals/{id}", id, "Goal"),
+                "Goal not found with id: " + goalId);
+    }
+
+    // Cancelling one caller must not cancel the call other callers wait for
+    private Mono<Void> validateAsync(AsyncCache<Long, Boolean> cache, Long id,
+                                     Function<Long, Mono<Boolean>> lookup, String notFoundMessage) {
+        return Mono.fromFuture(() -> cache.get(id, (key, executor) -> lookup.apply(key).toFuture()), true)
+                .flatMap(exists -> exists ? Mono.<Void>empty() : Mono.error(new RuntimeException(notFoundMessage)));
+    }
+
+    private Mono<Boolean> exists(WebClient webClient, String uri, Long id, String name) {
+        return webClient.head()
+                .uri(uri, id)
+                .retrieve()
+                .toBodilessEntity()
+                .doFirst(() -> logger.debug("Validating {} exists: {}", name, id))
+                .map(response -> true)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> {
+                    logger.debug("{} not found: {}", name, id);
+                    return Mono.just(false);
+                })
+                .onErrorMap(e -> {
+                    logger.error("{} validation failed for id: {}", name, id, e);
+                    return new RuntimeException("Unable to validate " + name.toLowerCase() + " with id: " + id);
+                });
+    }
+
+    private AsyncCache<Long, Boolean> createCache(String name) {
+        AsyncCache<Long, Boolean> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<Long, Boolean>() {
+                    @Override
+                    public long expireAfterCreate(Long key, Boolean exists, long currentTime) {
+                        return (exists ? positiveTtl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long key, Boolean exists, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, exists, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long key, Boolean exists, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        return cache;
+    }
+}
+
+// Made with Bob
@@ -0,0 +1,134 @@
+package com.gan.wcare.investment.service;
+
+import com.gan.wcare.investment.model.Investment;
+import com.gan.wcare.investment.model.SymbolPrice;
+import com.gan.wcare.investment.repository.SymbolPriceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Symbol Price Index
+ * In memory copy of wc_symbol_price used to value holdings without a database read.
+ * Readers get an immutable snapshot; every change publishes a new snapshot with a higher version.
+ * A symbol is only replaced by a row with a higher row version, so out of order updates cannot go back in time.
+ */
+@Component
+public class SymbolPriceIndex implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(SymbolPriceIndex.class);
+
+    @Autowired
+    private SymbolPriceRepository symbolPriceRepository;
+
+    @Autowired
+    private PortfolioEventBus portfolioEventBus;
+
+    private volatile Snapshot snapshot = new Snapshot(0, new HashMap<>());
+
+    /**
+     * Load the index once the schema and sample data are in place, before requests are served
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        refresh();
+        logger.info("Symbol price index loaded with {} symbols", snapshot.prices.size());
+    }
+
+    /**
+     * Pick up prices written by other instances
+     */
+    @Scheduled(fixedDelayString = "${services.price-index.refresh-interval:PT30S}",
+               initialDelayString = "${services.price-index.refresh-interval:PT30S}")
+    public void refresh() {
+        apply(symbolPriceRepository.findAll());
+    }
+
+    /**
+     * Current market price of a symbol, or null when it has none
+     */
+    public BigDecimal priceOf(String symbol) {
+        PricePoint point = snapshot.prices.get(symbol);
+        return point == null ? null : point.price;
+    }
+
+    /**
+     * Price used to value a holding: the symbol price for active market priced holdings, else its own price
+     */
+    public BigDecimal currentPriceOf(Investment investment) {
+        if (investment.isMarketPriced()) {
+            BigDecimal price = priceOf(investment.getSymbol());
+            if (price != null) {
+                return price;
+            }
+        }
+        return investment.getCurrentPrice();
+    }
+
+    /**
+     * Version of the current snapshot, incremented by every change
+     */
+    public long version() {
+        return snapshot.version;
+    }
+
+    public int size() {
+        return snapshot.prices.size();
+    }
+
+    /**
+     * Publish a snapshot with the given prices, ignoring rows not newer than the indexed ones
+     */
+    public synchronized void apply(Collection<SymbolPrice> prices) {
+        Snapshot current = snapshot;
+        Map<String, PricePoint> next = null;
+        Set<String> changed = new HashSet<>();
+        for (SymbolPrice price : prices) {
+            PricePoint indexed = (next != null ? next : current.prices).get(price.getSymbol());
+            if (indexed != null && indexed.version >= price.getVersion()) {
+                continue;
+            }
+            if (next == null) {
+                next = new HashMap<>(current.prices);
+            }
+            next.put(price.getSymbol(), new PricePoint(price.getPrice(), price.getVersion()));
+            changed.add(price.getSymbol());
+        }
+        if (next != null) {
+            snapshot = new Snapshot(current.version + 1, next);
+            portfolioEventBus.publishPrices(changed);
+        }
+    }
+
+    private static final class Snapshot {
+        private final long version;
+        private final Map<String, PricePoint> prices;
+
+        private Snapshot(long version, Map<String, PricePoint> prices) {
+            this.version = version;
+            this.prices = prices;
+        }
+    }
+
+    private static final class PricePoint {
+        private final BigDecimal price;
+        private final long version;
+
+        private PricePoint(BigDecimal price, long version) {
+            this.price = price;
+            this.version = version;
+        }
+    }
+}
+
+// Made with Bob
@@ -0,0 +1,97 @@
+package com.gan.wcare.investment.service;
+
+import com.gan.wcare.investment.model.SymbolPrice;
+import com.gan.wcare.investment.repository.SymbolPriceBatchRepository;
+import com.gan.wcare.investment.repository.SymbolPriceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Symbol Price Service
+ * Writes market prices: one wc_symbol_price row per symbol, then the price index once the transaction has committed.
+ * Cached portfolio totals carry quantities, not prices, so they are not evicted
+ */
+@Service
+@Transactional
+public class SymbolPriceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SymbolPriceService.class);
+
+    @Autowired
+    private SymbolPriceRepository symbolPriceRepository;
+
+    @Autowired
+    private SymbolPriceBatchRepository symbolPriceBatchRepository;
+
+    @Autowired
+    private SymbolPriceIndex symbolPriceIndex;
+
+    /**
+     * Save the price of each symbol, returns the symbols that had no price before
+     */
+    public List<String> savePrices(Map<String, BigDecimal> prices) {
+        List<Map.Entry<String, BigDecimal>> entries = new ArrayList<>(prices.entrySet());
+        LocalDate today = LocalDate.now();
+
+        int[] rows = symbolPriceBatchRepository.updatePrices(entries, today);
+
+        List<Map.Entry<String, BigDecimal>> newEntries = new ArrayList<>();
+        for (int i = 0; i < rows.length; i++) {
+            if (rows[i] == 0) {
+                newEntries.add(entries.get(i));
+            }
+        }
+        if (!newEntries.isEmpty()) {
+            symbolPriceBatchRepository.insertPrices(newEntries, today);
+        }
+
+        // Read back the row versions so the index only moves forward
+        List<SymbolPrice> saved = symbolPriceRepository.findAllById(prices.keySet());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    symbolPriceIndex.apply(saved);
+                }
+            });
+        } else {
+            symbolPriceIndex.apply(saved);
+        }
+
+        List<String> newSymbols = new ArrayList<>();
+        for (Map.Entry<String, BigDecimal> entry : newEntries) {
+            newSymbols.add(entry.getKey());
+        }
+        logger.info("Saved prices of {} symbols ({} new)", entries.size(), newSymbols.size());
+        return newSymbols;
+    }
+
+    /**
+     * Save the price of a symbol
+     */
+    public void savePrice(String symbol, BigDecimal price) {
+        savePrices(Map.of(symbol, price));
+    }
+
+    /**
+     * Save the first price of a symbol, an existing price is kept
+     */
+    public void savePriceIfAbsent(String symbol, BigDecimal price) {
+        if (!symbolPriceRepository.existsById(symbol)) {
+            savePrice(symbol, price);
+        }
+    }
+}
+
+// Made with Bob
@@ -46,4 +46,14 @@ INSERT INTO wc_investment (customer_id, goal_id, investment_name, investment_typ
 (2, NULL, 'Short Term FD', 'BONDS', 'FD-SBI', 1, 200000.00, 210000.00, '2022-07-01', '2023-07-01', 'Matured fixed deposit', 'MATURED', '2022-07-01', '2023-07-01'),
 (3, NULL, 'Kotak Equity Fund', 'MUTUAL_FUNDS', 'KOTAK-EQ', 250, 60.00, 68.00, '2022-08-15', NULL, 'Redeemed for home purchase', 'SOLD', '2022-08-15', '2023-04-20');
 
+-- Market prices, one row per symbol of the active market priced holdings (Investment.MARKET_PRICED_TYPES)
+INSERT INTO wc_symbol_price (symbol, price, version, last_updated_date)
+SELECT symbol, MAX(current_price), 1, CURRENT_DATE FROM wc_investment
+WHERE status = 'ACTIVE' AND investment_type IN ('STOCKS', 'MUTUAL_FUNDS', 'ETF', 'GOLD', 'CRYPTO') AND current_price IS NOT NULL
+GROUP BY symbol;
+
+-- Those holdings are valued at the symbol price
+UPDATE wc_investment SET current_price = NULL
+WHERE status = 'ACTIVE' AND investment_type IN ('STOCKS', 'MUTUAL_FUNDS', 'ETF', 'GOLD', 'CRYPTO');
+
 -- Made with Bob
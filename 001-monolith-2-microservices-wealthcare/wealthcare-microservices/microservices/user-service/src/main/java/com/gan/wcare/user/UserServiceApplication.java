@@ -1,15 +1,20 @@
 package com.gan.wcare.user;
 
+import com.gan.wcare.security.JwtSecurityAutoConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * User Service Application
  * Handles user authentication, authorization, and user management
+ * wcare-security's auto-configuration is excluded: this service issues the tokens and has its own Spring Security
+ * rules (SecurityConfig), it only reuses JwtVerifier.
  */
-@SpringBootApplication
+@SpringBootApplication(exclude = JwtSecurityAutoConfiguration.class)
 @EnableJpaAuditing
+@EnableScheduling
 public class UserServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,132 @@
+package com.gan.wcare.user.benchmark;
+
+import com.gan.wcare.security.JwtPrincipal;
+import com.gan.wcare.user.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+/**
+ * JWT Benchmark
+ * Validate + extract (username, role, userId) throughput over benchmark.jwt.tokens distinct tokens, on
+ * benchmark.jwt.threads threads: the previous JwtUtil (signing key derived and token verified on every call),
+ * one verification with a shared key and parser, and JwtUtil with JwtVerifier's verified claims cache.
+ * Run with --spring.profiles.active=benchmark, the results are logged at startup.
+ */
+@Component
+@Profile("benchmark")
+@RequiredArgsConstructor
+@Slf4j
+public class JwtBenchmark implements CommandLineRunner {
+
+    private final JwtUtil jwtUtil;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    @Value("${benchmark.jwt.tokens:1000}")
+    private int tokenCount;
+
+    @Value("${benchmark.jwt.operations:200000}")
+    private int operations;
+
+    @Value("${benchmark.jwt.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int threads;
+
+    @Override
+    public void run(String... args) throws Exception {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < tokenCount; i++) {
+            tokens.add(jwtUtil.generateToken("benchmark" + i, "CUSTOMER", (long) i));
+        }
+        JwtParser sharedParser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(jwtSecret.getBytes()))
+                .build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            time(executor, tokens, "previous (key and verification per call)", this::validateAndExtractPerCall);
+            time(executor, tokens, "shared key, one verification", token -> extract(sharedParser.parseSignedClaims(token).getPayload()));
+            time(executor, tokens, "JwtUtil (claims cache)", token -> jwtUtil.verifyToken(token)
+                    .map(JwtBenchmark::extract).orElse(0));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    //Previous JwtUtil: validateToken, getUsernameFromToken, getRoleFromToken and getUserIdFromToken each
+    //derived the signing key and verified the token
+    private int validateAndExtractPerCall(String token) {
+        parsePerCall(token);
+        String username = parsePerCall(token).getSubject();
+        String role = parsePerCall(token).get("role", String.class);
+        Long userId = parsePerCall(token).get("userId", Long.class);
+        return username.length() + role.length() + userId.intValue();
+    }
+
+    private Claims parsePerCall(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(jwtSecret.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private static int extract(Claims claims) {
+        return claims.getSubject().length() + claims.get("role", String.class).length()
+                + claims.get("userId", Long.class).intValue();
+    }
+
+    private static int extract(JwtPrincipal principal) {
+        return principal.username().length() + principal.role().length() + principal.userId().intValue();
+    }
+
+    private void time(ExecutorService executor, List<String> tokens, String name, ToIntFunction<String> validateAndExtract)
+            throws Exception {
+        // Warm up JIT (and the claims cache)
+        runOperations(executor, tokens, operations / 4, validateAndExtract);
+
+        long start = System.nanoTime();
+        runOperations(executor, tokens, operations, validateAndExtract);
+        long elapsed = System.nanoTime() - start;
+
+        log.info("Benchmark JWT {} ({} tokens, {} threads): {} ops/s, {} us/op per thread", name, tokens.size(), threads,
+                String.format("%.0f", operations / (elapsed / 1_000_000_000.0)),
+                String.format("%.2f", elapsed / 1_000.0 * threads / operations));
+    }
+
+    private void runOperations(ExecutorService executor, List<String> tokens, int count, ToIntFunction<String> validateAndExtract)
+            throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        List<Future<Long>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                long checksum = 0;
+                for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+                    checksum += validateAndExtract.applyAsInt(tokens.get(i % tokens.size()));
+                }
+                return checksum;
+            }));
+        }
+        for (Future<Long> result : results) {
+            result.get();
+        }
+    }
+}
+
+// Made with Bob
@@ -0,0 +1,21 @@
+package com.gan.wcare.user.config;
+
+import com.gan.wcare.security.JwtVerifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JWT Verifier Configuration
+ * Token verification is wcare-security's JwtVerifier (jwt.secret, security.jwt.claims-cache.*), declared here since its
+ * auto-configuration, and the /api/** filter that would refuse logins, is excluded in UserServiceApplication.
+ */
+@Configuration
+public class JwtVerifierConfig {
+
+    @Bean
+    public JwtVerifier jwtVerifier() {
+        return new JwtVerifier();
+    }
+}
+
+// Made with Bob
@@ -2,17 +2,25 @@ package com.gan.wcare.user.controller;
 
 import com.gan.wcare.user.dto.LoginRequest;
 import com.gan.wcare.user.dto.LoginResponse;
+import com.gan.wcare.user.service.LoginExecutor;
 import com.gan.wcare.user.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 /**
  * Authentication Controller
+ * Logins run in the LoginExecutor lane, off the request thread; a login refused under overload gets 503.
  */
 @RestController
 @RequestMapping("/api/auth")
@@ -22,18 +30,27 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final UserService userService;
+    private final LoginExecutor loginExecutor;
 
     @PostMapping("/login")
     @Operation(summary = "User login", description = "Authenticate user and return JWT token")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@Valid @RequestBody LoginRequest loginRequest) {
         log.info("Login request received for username: {}", loginRequest.getUsername());
-        LoginResponse response = userService.login(loginRequest);
-        
-        if (response.getToken() != null) {
-            return ResponseEntity.ok(response);
-        } else {
-            return ResponseEntity.badRequest().body(response);
+        return loginExecutor.submit(loginRequest.getUsername(), () -> userService.login(loginRequest))
+                .thenApply(response -> response.getToken() != null
+                        ? ResponseEntity.ok(response)
+                        : ResponseEntity.badRequest().body(response))
+                .exceptionally(this::loginRefused);
+    }
+
+    private ResponseEntity<LoginResponse> loginRefused(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(LoginResponse.builder().message(cause.getMessage()).build());
         }
+        throw failure instanceof CompletionException completion ? completion : new CompletionException(cause);
     }
 
     @PostMapping("/validate")
@@ -46,15 +63,10 @@ public class AuthController {
     @GetMapping("/user-info")
     @Operation(summary = "Get user info from token", description = "Extract user information from JWT token")
     public ResponseEntity<?> getUserInfo(@RequestParam String token) {
-        if (!userService.validateToken(token)) {
-            return ResponseEntity.badRequest().body("Invalid token");
-        }
-
-        String username = userService.getUsernameFromToken(token);
-        String role = userService.getRoleFromToken(token);
-        Long userId = userService.getUserIdFromToken(token);
-
-        return ResponseEntity.ok(new UserInfo(userId, username, role));
+        return userService.getPrincipalFromToken(token)
+                .<ResponseEntity<?>>map(principal -> ResponseEntity.ok(new UserInfo(
+                        principal.userId(), principal.username(), principal.role())))
+                .orElseGet(() -> ResponseEntity.badRequest().body("Invalid token"));
     }
 
     // Inner class for user info response
@@ -1,5 +1,6 @@
 package com.gan.wcare.user.controller;
 
+import com.gan.wcare.user.dto.KeysetPageDTO;
 import com.gan.wcare.user.dto.UserDTO;
 import com.gan.wcare.user.model.User;
 import com.gan.wcare.user.service.UserService;
@@ -8,9 +9,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -34,6 +40,34 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Get users page", description = "Retrieve one page of users (page, size, sort; id breaks ties)")
+    public ResponseEntity<Page<UserDTO>> getUsersPage(@PageableDefault(size = 50, sort = "id") Pageable pageable) {
+        try {
+            return ResponseEntity.ok(userService.getUsersPage(pageable));
+        } catch (RuntimeException e) {
+            log.error("Error getting users page: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/keyset")
+    @Operation(summary = "Get users after an id", description = "Retrieve the next users in id order after afterId (keyset pagination)")
+    public ResponseEntity<KeysetPageDTO<UserDTO>> getUsersAfter(
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(userService.getUsersAfter(afterId, size));
+    }
+
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    @Operation(summary = "Stream all users", description = "Every user as newline delimited JSON, in id order")
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        StreamingResponseBody body = out -> userService.streamAllUsers(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get user by ID", description = "Retrieve user by ID")
     public ResponseEntity<UserDTO> getUserById(@PathVariable Long id) {
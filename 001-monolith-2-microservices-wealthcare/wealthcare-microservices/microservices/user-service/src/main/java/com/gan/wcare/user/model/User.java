@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
  * User Entity - Base user authentication and profile
  */
 @Entity
-@Table(name = "wc_users")
+@Table(name = "wc_users", indexes = @Index(name = "idx_users_updated_at", columnList = "updated_at"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,10 +1,18 @@
 package com.gan.wcare.user.repository;
 
 import com.gan.wcare.user.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * User Repository
@@ -12,6 +20,35 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    /**
+     * Keyset page: the users after an id, in id order
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Every user in id order, fetched from the cursor in chunks, to be used inside a read-only transaction
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    Stream<User> streamAll();
+
+    /**
+     * Every username, to be used inside a read-only transaction
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT u.username FROM User u")
+    Stream<String> streamAllUsernames();
+
+    /**
+     * Every email, to be used inside a read-only transaction
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT u.emailId FROM User u")
+    Stream<String> streamAllEmailIds();
+
     Optional<User> findByUsername(String username);
 
     Optional<User> findByEmailId(String emailId);
@@ -19,6 +56,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
 
     boolean existsByEmailId(String emailId);
+
+    /**
+     * Users written since the last lookup filter rebuild, by updatedAt (indexed)
+     */
+    boolean existsByUsernameAndUpdatedAtAfter(String username, LocalDateTime updatedAt);
+
+    boolean existsByEmailIdAndUpdatedAtAfter(String emailId, LocalDateTime updatedAt);
 }
 
 // Made with Bob
@@ -0,0 +1,70 @@
+package com.gan.wcare.user.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt password encoder whose cost is chosen at startup
+ * calibrate measures one hash at the lowest cost and picks the highest cost whose hash still fits the target time
+ * (each cost step doubles it). It runs on each instance at startup, where CPU is contended and limits differ, so it is
+ * meant for finding a cost to pin (security.bcrypt.cost), not for deployments.
+ * upgradeEncoding is true only for a stored hash of a lower cost, so passwords move up to the current cost on their
+ * next successful login and are never weakened by an instance with a lower cost.
+ */
+@Slf4j
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d\\d)\\$");
+
+    private final int cost;
+
+    public AdaptiveBCryptPasswordEncoder(int cost) {
+        super(cost);
+        this.cost = cost;
+    }
+
+    /**
+     * Encoder with the highest cost in [minCost, maxCost] whose hash takes at most targetHashTime here
+     */
+    public static AdaptiveBCryptPasswordEncoder calibrate(Duration targetHashTime, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        // First hash warms up the JIT, the faster of the next ones is the measure
+        probe.encode("calibration");
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        int cost = minCost;
+        long hashNanos = best;
+        while (cost < maxCost && hashNanos * 2 <= targetHashTime.toNanos()) {
+            cost++;
+            hashNanos *= 2;
+        }
+        log.warn("BCrypt cost {} calibrated: about {} ms per hash (cost {} measured {} ms, target {} ms); "
+                        + "pin it with BCRYPT_COST={} so every instance uses the same cost", cost,
+                hashNanos / 1_000_000, minCost, best / 1_000_000, targetHashTime.toMillis(), cost);
+        return new AdaptiveBCryptPasswordEncoder(cost);
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) < cost;
+    }
+}
+
+// Made with Bob
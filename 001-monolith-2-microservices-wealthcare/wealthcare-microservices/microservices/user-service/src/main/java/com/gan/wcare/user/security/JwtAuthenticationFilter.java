@@ -0,0 +1,52 @@
+package com.gan.wcare.user.security;
+
+import com.gan.wcare.security.JwtPrincipal;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JWT Authentication Filter
+ * Authenticates requests carrying a valid bearer token (from login, or another service's own token):
+ * the token's subject becomes the principal, its role a ROLE_ authority and its JwtPrincipal the details.
+ * Requests without a valid token continue unauthenticated and are refused where authentication is required.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtUtil jwtUtil;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            Optional<JwtPrincipal> principal = jwtUtil.verifyToken(authorization.substring(BEARER_PREFIX.length()));
+            principal.ifPresent(caller -> {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        caller.username(), null,
+                        caller.role() != null ? List.of(new SimpleGrantedAuthority("ROLE_" + caller.role())) : List.of());
+                authentication.setDetails(caller);
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            });
+        }
+        filterChain.doFilter(request, response);
+    }
+}
+
+// Made with Bob
@@ -1,30 +1,67 @@
 package com.gan.wcare.user.security;
 
+import com.gan.wcare.security.JwtPrincipal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Security Configuration
+ * Bearer tokens are verified by JwtAuthenticationFilter; requests that need authentication and carry none get 401.
+ * A user may read only their own user; other user reads and all user writes need BUSINESS_MANAGER, and the profile ID
+ * update (called by Customer Service) needs a SERVICE token. Anything else gets 403.
+ * Passwords are hashed with BCrypt at security.bcrypt.cost (pinned per deployment), or when it is not set, at the
+ * highest cost in [min-cost, max-cost] that hashes within security.bcrypt.target-hash-time on this machine.
  */
 @Configuration
 @EnableWebSecurity
+@RequiredArgsConstructor
 public class SecurityConfig {
 
+    private static final String BUSINESS_MANAGER_ROLE = "BUSINESS_MANAGER";
+    private static final String SERVICE_ROLE = "SERVICE";
+
+    private final JwtUtil jwtUtil;
+
+    @Value("${security.bcrypt.cost:0}")
+    private int bcryptCost;
+
+    @Value("${security.bcrypt.target-hash-time:200ms}")
+    private Duration bcryptTargetHashTime;
+
+    @Value("${security.bcrypt.min-cost:10}")
+    private int bcryptMinCost;
+
+    @Value("${security.bcrypt.max-cost:14}")
+    private int bcryptMaxCost;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        if (bcryptCost > 0) {
+            return new AdaptiveBCryptPasswordEncoder(bcryptCost);
+        }
+        return AdaptiveBCryptPasswordEncoder.calibrate(bcryptTargetHashTime, bcryptMinCost, bcryptMaxCost);
     }
 
     @Bean
@@ -40,10 +77,21 @@ public class SecurityConfig {
                                 "/h2-console/**",
                                 "/swagger-ui/**",
                                 "/api-docs/**",
-                                "/actuator/**"
+                                "/actuator/**",
+                                "/error"
                         ).permitAll()
+                        .requestMatchers(HttpMethod.PUT, "/api/users/*/profile").hasRole(SERVICE_ROLE)
+                        .requestMatchers(HttpMethod.GET, "/api/users/page", "/api/users/keyset", "/api/users/stream")
+                                .hasRole(BUSINESS_MANAGER_ROLE)
+                        .requestMatchers(HttpMethod.GET, "/api/users/{id}").access(this::ownUserOrBusinessManager)
+                        .requestMatchers(HttpMethod.GET, "/api/users/username/{username}").access(this::ownUserOrBusinessManager)
+                        .requestMatchers("/api/users", "/api/users/**").hasRole(BUSINESS_MANAGER_ROLE)
                         .anyRequest().authenticated()
                 )
+                .addFilterBefore(new JwtAuthenticationFilter(jwtUtil), UsernamePasswordAuthenticationFilter.class)
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+                )
                 .headers(headers -> headers
                         .frameOptions(frame -> frame.sameOrigin())
                 );
@@ -51,6 +99,26 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Granted to a business manager, or to the user named by the path's {id} or {username}
+     */
+    private AuthorizationDecision ownUserOrBusinessManager(Supplier<Authentication> authentication,
+                                                           RequestAuthorizationContext context) {
+        Authentication caller = authentication.get();
+        if (caller == null || !caller.isAuthenticated() || !(caller.getDetails() instanceof JwtPrincipal principal)) {
+            return new AuthorizationDecision(false);
+        }
+        if (principal.hasRole(BUSINESS_MANAGER_ROLE)) {
+            return new AuthorizationDecision(true);
+        }
+        String id = context.getVariables().get("id");
+        String username = context.getVariables().get("username");
+        Long userId = principal.userId();
+        boolean own = (id != null && userId != null && id.equals(userId.toString()))
+                || (username != null && username.equals(principal.username()));
+        return new AuthorizationDecision(own);
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -0,0 +1,174 @@
+package com.gan.wcare.user.service;
+
+import com.gan.wcare.user.dto.LoginResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Login Executor - Bounded lane for password checks
+ * Logins (BCrypt) run on security.login.threads threads of their own, so a login burst uses those and leaves
+ * request threads, token validation and the other APIs alone. At most security.login.queue-capacity logins
+ * wait; beyond that a login is refused at once. Waiting logins are taken fewest recent failed attempts first
+ * (per username, over security.login.failure-window), so repeated bad passwords wait behind everyone else.
+ * A login that waited longer than security.login.max-wait is refused without checking the password.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LoginExecutor {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.login.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int threads;
+
+    @Value("${security.login.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${security.login.max-wait:5s}")
+    private Duration maxWait;
+
+    @Value("${security.login.failure-window:15m}")
+    private Duration failureWindow;
+
+    private ThreadPoolExecutor executor;
+    private Semaphore permits;
+    private Cache<String, AtomicInteger> recentFailures;
+    private final AtomicLong sequence = new AtomicLong();
+
+    private Counter rejectedQueueFull;
+    private Counter rejectedExpired;
+    private Timer waitTimer;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        permits = new Semaphore(threads + queueCapacity);
+        recentFailures = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(failureWindow)
+                .build();
+
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "login");
+        rejectedQueueFull = Counter.builder("login.rejected").tag("reason", "queue-full").register(meterRegistry);
+        rejectedExpired = Counter.builder("login.rejected").tag("reason", "max-wait").register(meterRegistry);
+        waitTimer = Timer.builder("login.wait").description("Time logins waited for a login thread").register(meterRegistry);
+        log.info("Login executor: {} threads, {} queued logins at most, max wait {}", threads, queueCapacity, maxWait);
+    }
+
+    /**
+     * Run a login in the lane; the result fails with RejectedExecutionException if the lane is full or the
+     * login waited too long
+     */
+    public CompletableFuture<LoginResponse> submit(String username, Supplier<LoginResponse> login) {
+        CompletableFuture<LoginResponse> result = new CompletableFuture<>();
+        if (!permits.tryAcquire()) {
+            rejectedQueueFull.increment();
+            log.warn("Login refused, {} logins running or waiting: {}", threads + queueCapacity, username);
+            result.completeExceptionally(new RejectedExecutionException("Too many login attempts, try again shortly"));
+            return result;
+        }
+
+        String key = username == null ? "" : username.toLowerCase();
+        AtomicInteger failures = recentFailures.getIfPresent(key);
+        int priority = failures == null ? 0 : failures.get();
+        try {
+            executor.execute(new LoginTask(priority, sequence.incrementAndGet(), System.nanoTime(), () -> {
+                try {
+                    LoginResponse response = login.get();
+                    if (response.getToken() == null) {
+                        recentFailures.get(key, k -> new AtomicInteger()).incrementAndGet();
+                    } else {
+                        recentFailures.invalidate(key);
+                    }
+                    result.complete(response);
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            }, result));
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        List<Runnable> waiting = executor.shutdownNow();
+        waiting.forEach(task -> ((LoginTask) task).result.completeExceptionally(
+                new RejectedExecutionException("Login executor shut down")));
+    }
+
+    /**
+     * Queued login, ordered by recent failures then arrival
+     */
+    private final class LoginTask implements Runnable, Comparable<LoginTask> {
+
+        private final int priority;
+        private final long sequence;
+        private final long queuedAt;
+        private final Runnable login;
+        private final CompletableFuture<LoginResponse> result;
+
+        private LoginTask(int priority, long sequence, long queuedAt, Runnable login, CompletableFuture<LoginResponse> result) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.queuedAt = queuedAt;
+            this.login = login;
+            this.result = result;
+        }
+
+        @Override
+        public void run() {
+            try {
+                long waited = System.nanoTime() - queuedAt;
+                waitTimer.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > maxWait.toNanos()) {
+                    rejectedExpired.increment();
+                    result.completeExceptionally(new RejectedExecutionException("Too many login attempts, try again shortly"));
+                    return;
+                }
+                login.run();
+            } finally {
+                permits.release();
+            }
+        }
+
+        @Override
+        public int compareTo(LoginTask other) {
+            int byPriority = Integer.compare(priority, other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
+
+// Made with Bob
@@ -0,0 +1,260 @@
+package com.gan.wcare.user.service;
+
+import com.gan.wcare.user.model.User;
+import com.gan.wcare.user.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * User Lookup Cache
+ * Bloom filters of every username and email, so lookups of ones that do not exist are answered without a user query,
+ * and a bounded cache of active users by username. The filters are built from the database when the application is
+ * ready (every name counts as possibly present until then) and rebuilt every users.lookup-filter.rebuild-interval;
+ * they take each username and email written here at once and again after commit, so that a rebuild running meanwhile
+ * does not miss it. A name the filter does not have is checked against the users written (updatedAt) since one
+ * rebuild interval before the last rebuild started, an indexed range of a few rows: users created or changed on another
+ * instance since then are found, so the filters never answer absent for a user that exists.
+ * Changed users are evicted from the cache, again after commit so that a user read while the transaction was still
+ * open is not kept; other instances keep theirs for users.cache.ttl, so it is seconds. Cached users are copies,
+ * never managed entities.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserLookupCache {
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${users.lookup-filter.expected-insertions:100000}")
+    private long expectedInsertions;
+
+    @Value("${users.lookup-filter.false-positive-probability:0.01}")
+    private double falsePositiveProbability;
+
+    @Value("${users.lookup-filter.rebuild-interval:PT1M}")
+    private Duration rebuildInterval;
+
+    @Value("${users.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${users.cache.ttl:10s}")
+    private Duration cacheTtl;
+
+    private final Object filterLock = new Object();
+    private volatile BloomFilter usernames;
+    private volatile BloomFilter emailIds;
+    private volatile BloomFilter rebuildingUsernames;
+    private volatile BloomFilter rebuildingEmailIds;
+    private volatile boolean filtersReady;
+
+    // Users written after this may be missing from the filters; one interval early, for transactions open across a rebuild
+    private volatile LocalDateTime writtenSince;
+
+    private Cache<String, User> activeUsers;
+
+    private Counter filterNegatives;
+    private Counter filterRecent;
+    private Counter filterPositives;
+    private Counter filterFalsePositives;
+
+    @PostConstruct
+    public void init() {
+        usernames = new BloomFilter(expectedInsertions, falsePositiveProbability);
+        emailIds = new BloomFilter(expectedInsertions, falsePositiveProbability);
+        activeUsers = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, activeUsers, "users");
+
+        filterNegatives = Counter.builder("users.lookup.filter").tag("result", "negative")
+                .description("Lookups answered absent by the filter, without a user query").register(meterRegistry);
+        filterRecent = Counter.builder("users.lookup.filter").tag("result", "recent")
+                .description("Lookups the filter missed, found among the users written since the last rebuild")
+                .register(meterRegistry);
+        filterPositives = Counter.builder("users.lookup.filter").tag("result", "positive")
+                .description("Lookups the filter passed on that found a user").register(meterRegistry);
+        filterFalsePositives = Counter.builder("users.lookup.filter").tag("result", "false-positive")
+                .description("Lookups the filter passed on that found nothing").register(meterRegistry);
+        Gauge.builder("users.lookup.filter.false-positive-rate", this, UserLookupCache::observedFalsePositiveRate)
+                .description("Share of lookups of absent names the filter passed on to the database")
+                .register(meterRegistry);
+        Gauge.builder("users.lookup.filter.expected-false-positive-probability", this,
+                        cache -> cache.usernames.expectedFalsePositiveProbability())
+                .tag("filter", "username").register(meterRegistry);
+        Gauge.builder("users.lookup.filter.expected-false-positive-probability", this,
+                        cache -> cache.emailIds.expectedFalsePositiveProbability())
+                .tag("filter", "email").register(meterRegistry);
+    }
+
+    /**
+     * Build the filters from every username and email in the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${users.lookup-filter.rebuild-interval:PT1M}",
+               initialDelayString = "${users.lookup-filter.rebuild-interval:PT1M}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        LocalDateTime started = LocalDateTime.now();
+        long count = Math.max(expectedInsertions, 2 * userRepository.count());
+        BloomFilter newUsernames = new BloomFilter(count, falsePositiveProbability);
+        BloomFilter newEmailIds = new BloomFilter(count, falsePositiveProbability);
+        synchronized (filterLock) {
+            rebuildingUsernames = newUsernames;
+            rebuildingEmailIds = newEmailIds;
+        }
+
+        AtomicLong users = new AtomicLong();
+        try (Stream<String> names = userRepository.streamAllUsernames()) {
+            names.forEach(name -> {
+                newUsernames.put(name);
+                users.incrementAndGet();
+            });
+        }
+        try (Stream<String> emails = userRepository.streamAllEmailIds()) {
+            emails.forEach(newEmailIds::put);
+        }
+
+        synchronized (filterLock) {
+            usernames = newUsernames;
+            emailIds = newEmailIds;
+            rebuildingUsernames = null;
+            rebuildingEmailIds = null;
+            writtenSince = started.minus(rebuildInterval);
+            filtersReady = true;
+        }
+        log.debug("User lookup filters built: {} users, sized for {}", users.get(), count);
+    }
+
+    /**
+     * False when no user has this username; true when one may
+     */
+    public boolean mightExistUsername(String username) {
+        if (username == null || !filtersReady || usernames.mightContain(username)) {
+            return true;
+        }
+        return recentlyWritten(userRepository.existsByUsernameAndUpdatedAtAfter(username, writtenSince));
+    }
+
+    /**
+     * False when no user has this email; true when one may
+     */
+    public boolean mightExistEmailId(String emailId) {
+        if (emailId == null || !filtersReady || emailIds.mightContain(emailId)) {
+            return true;
+        }
+        return recentlyWritten(userRepository.existsByEmailIdAndUpdatedAtAfter(emailId, writtenSince));
+    }
+
+    /**
+     * Record whether a lookup the filter passed on found a user
+     */
+    public void recordLookup(boolean found) {
+        if (filtersReady) {
+            (found ? filterPositives : filterFalsePositives).increment();
+        }
+    }
+
+    /**
+     * Add a new or changed user's username and email to the filters
+     */
+    public void addUser(String username, String emailId) {
+        add(username, emailId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(username, emailId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Copy of the cached active user with this username
+     */
+    public Optional<User> getActiveUser(String username) {
+        return Optional.ofNullable(username == null ? null : activeUsers.getIfPresent(username)).map(UserLookupCache::copyOf);
+    }
+
+    /**
+     * Cache a copy of a user, if active
+     */
+    public void putActiveUser(User user) {
+        if (Boolean.TRUE.equals(user.getActive())) {
+            activeUsers.put(user.getUsername(), copyOf(user));
+        }
+    }
+
+    /**
+     * Evict the user with this username
+     */
+    public void evictUser(String username) {
+        activeUsers.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    activeUsers.invalidate(username);
+                }
+            });
+        }
+    }
+
+    private boolean recentlyWritten(boolean found) {
+        (found ? filterRecent : filterNegatives).increment();
+        return found;
+    }
+
+    private void add(String username, String emailId) {
+        synchronized (filterLock) {
+            putIfPresent(usernames, username);
+            putIfPresent(rebuildingUsernames, username);
+            putIfPresent(emailIds, emailId);
+            putIfPresent(rebuildingEmailIds, emailId);
+        }
+    }
+
+    private static void putIfPresent(BloomFilter filter, String value) {
+        if (filter != null && value != null) {
+            filter.put(value);
+        }
+    }
+
+    private double observedFalsePositiveRate() {
+        double falsePositives = filterFalsePositives.count();
+        double absent = falsePositives + filterNegatives.count();
+        return absent == 0 ? 0 : falsePositives / absent;
+    }
+
+    private static User copyOf(User user) {
+        return new User(user.getId(), user.getUsername(), user.getPassword(), user.getEmailId(), user.getRole(),
+                user.getActive(), user.getCreatedAt(), user.getUpdatedAt(), user.getBusinessManagerId(),
+                user.getWealthManagerId(), user.getCustomerId());
+    }
+}
+
+// Made with Bob
@@ -1,23 +1,38 @@
 package com.gan.wcare.user.service;
 
+import com.gan.wcare.security.JwtPrincipal;
+import com.gan.wcare.user.dto.KeysetPageDTO;
 import com.gan.wcare.user.dto.LoginRequest;
 import com.gan.wcare.user.dto.LoginResponse;
 import com.gan.wcare.user.dto.UserDTO;
 import com.gan.wcare.user.model.User;
 import com.gan.wcare.user.repository.UserRepository;
 import com.gan.wcare.user.security.JwtUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * User Service - Business logic for user management
+ * Lookups by username go through UserLookupCache's cache of active users first; logins and uniqueness checks for
+ * usernames and emails its filters rule out are answered without a user query.
  */
 @Service
 @RequiredArgsConstructor
@@ -25,9 +40,15 @@ import java.util.stream.Collectors;
 @Transactional
 public class UserService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_FLUSH_ROWS = 500;
+
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final UserLookupCache userLookupCache;
 
     /**
      * Authenticate user and generate JWT token
@@ -35,7 +56,10 @@ public class UserService {
     public LoginResponse login(LoginRequest loginRequest) {
         log.info("Login attempt for username: {}", loginRequest.getUsername());
 
-        Optional<User> userOpt = userRepository.findByUsername(loginRequest.getUsername());
+        Optional<User> userOpt = userLookupCache.getActiveUser(loginRequest.getUsername())
+                .or(() -> userLookupCache.mightExistUsername(loginRequest.getUsername())
+                        ? findUserByUsername(loginRequest.getUsername(), true)
+                        : Optional.empty());
         
         if (userOpt.isEmpty()) {
             log.warn("User not found: {}", loginRequest.getUsername());
@@ -60,6 +84,14 @@ public class UserService {
                     .build();
         }
 
+        // Stored hash of another BCrypt cost: rehash at the current cost while the password is at hand
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            String rehashed = passwordEncoder.encode(loginRequest.getPassword());
+            userRepository.findById(user.getId()).ifPresent(stored -> stored.setPassword(rehashed));
+            userLookupCache.evictUser(user.getUsername());
+            log.info("Password rehashed at the current cost for user: {}", user.getUsername());
+        }
+
         // Generate JWT token
         String token = jwtUtil.generateToken(
                 user.getUsername(), 
@@ -101,12 +133,12 @@ public class UserService {
         log.info("Creating new user: {}", userDTO.getUsername());
 
         // Check if username already exists
-        if (userRepository.existsByUsername(userDTO.getUsername())) {
+        if (usernameExists(userDTO.getUsername())) {
             throw new RuntimeException("Username already exists");
         }
 
         // Check if email already exists
-        if (userRepository.existsByEmailId(userDTO.getEmailId())) {
+        if (emailIdExists(userDTO.getEmailId())) {
             throw new RuntimeException("Email already exists");
         }
 
@@ -121,6 +153,7 @@ public class UserService {
         user.setCustomerId(userDTO.getCustomerId());
 
         User savedUser = userRepository.save(user);
+        userLookupCache.addUser(savedUser.getUsername(), savedUser.getEmailId());
         log.info("User created successfully: {}", savedUser.getUsername());
 
         return convertToDTO(savedUser);
@@ -140,7 +173,8 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public Optional<UserDTO> getUserByUsername(String username) {
-        return userRepository.findByUsername(username)
+        return userLookupCache.getActiveUser(username)
+                .or(() -> findUserByUsername(username, false))
                 .map(this::convertToDTO);
     }
 
@@ -154,6 +188,58 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get one page of users, id is always the last sort key so pages do not overlap
+     */
+    @Transactional(readOnly = true)
+    public Page<UserDTO> getUsersPage(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        if (sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by("id"));
+        }
+        return userRepository.findAll(PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort))
+                .map(this::convertToDTO);
+    }
+
+    /**
+     * Get the users after an id (keyset pagination, no offset scan)
+     */
+    @Transactional(readOnly = true)
+    public KeysetPageDTO<UserDTO> getUsersAfter(Long afterId, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<UserDTO> items = userRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit)).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        Long nextAfterId = items.size() == limit ? items.get(items.size() - 1).getId() : null;
+        return KeysetPageDTO.<UserDTO>builder()
+                .items(items)
+                .nextAfterId(nextAfterId)
+                .build();
+    }
+
+    /**
+     * Write every user as one JSON line, memory does not grow with the table
+     */
+    @Transactional(readOnly = true)
+    public long streamAllUsers(OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<User> users = userRepository.streamAll()) {
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                User user = iterator.next();
+                out.write(objectMapper.writeValueAsBytes(convertToDTO(user)));
+                out.write('\n');
+                entityManager.detach(user);
+                if (++count % STREAM_FLUSH_ROWS == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        log.info("Streamed {} users", count);
+        return count;
+    }
+
     /**
      * Update user
      */
@@ -172,6 +258,8 @@ public class UserService {
         user.setCustomerId(userDTO.getCustomerId());
 
         User updatedUser = userRepository.save(user);
+        userLookupCache.addUser(updatedUser.getUsername(), updatedUser.getEmailId());
+        userLookupCache.evictUser(updatedUser.getUsername());
         log.info("User updated successfully: {}", updatedUser.getUsername());
 
         return convertToDTO(updatedUser);
@@ -193,6 +281,7 @@ public class UserService {
         }
 
         userRepository.save(user);
+        userLookupCache.evictUser(user.getUsername());
         log.info("Profile ID updated successfully for user: {}", userId);
     }
 
@@ -203,6 +292,13 @@ public class UserService {
         return jwtUtil.validateToken(token);
     }
 
+    /**
+     * Caller (username, role, user ID, expiration) of a valid token
+     */
+    public Optional<JwtPrincipal> getPrincipalFromToken(String token) {
+        return jwtUtil.verifyToken(token);
+    }
+
     /**
      * Get username from token
      */
@@ -224,6 +320,36 @@ public class UserService {
         return jwtUtil.getUserIdFromToken(token);
     }
 
+    /**
+     * User by username from the database, cached if active; filtered tells whether the filter passed it on
+     */
+    private Optional<User> findUserByUsername(String username, boolean filtered) {
+        Optional<User> user = userRepository.findByUsername(username);
+        if (filtered) {
+            userLookupCache.recordLookup(user.isPresent());
+        }
+        user.ifPresent(userLookupCache::putActiveUser);
+        return user;
+    }
+
+    private boolean usernameExists(String username) {
+        if (!userLookupCache.mightExistUsername(username)) {
+            return false;
+        }
+        boolean exists = userRepository.existsByUsername(username);
+        userLookupCache.recordLookup(exists);
+        return exists;
+    }
+
+    private boolean emailIdExists(String emailId) {
+        if (!userLookupCache.mightExistEmailId(emailId)) {
+            return false;
+        }
+        boolean exists = userRepository.existsByEmailId(emailId);
+        userLookupCache.recordLookup(exists);
+        return exists;
+    }
+
     /**
      * Convert User entity to DTO
      */
@@ -0,0 +1,90 @@
+package com.gan.wcare.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.Optional;
+
+/**
+ * JWT Authentication Filter
+ * Requires a valid User Service (or service) token on /api/** requests, verified locally by JwtVerifier.
+ * The caller is available as the request's user principal (a JwtPrincipal), its role through isUserInRole,
+ * and as the request attribute JwtAuthenticationFilter.PRINCIPAL_ATTRIBUTE.
+ * Service tokens (role SERVICE) are accepted only on the endpoints in ServiceEndpoints, elsewhere the answer is 403.
+ * CORS preflight, actuator, Swagger and the H2 console stay open. security.jwt.enabled=false turns it off.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String PRINCIPAL_ATTRIBUTE = JwtPrincipal.ATTRIBUTE;
+
+    @Autowired
+    private JwtVerifier jwtVerifier;
+
+    @Autowired
+    private ServiceEndpoints serviceEndpoints;
+
+    @Value("${security.jwt.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || HttpMethod.OPTIONS.matches(request.getMethod())
+                || !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Optional<JwtPrincipal> principal = jwtVerifier.verifyAuthorization(request.getHeader(HttpHeaders.AUTHORIZATION));
+        if (principal.isEmpty()) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Missing or invalid bearer token");
+            return;
+        }
+        if (principal.get().hasRole(JwtPrincipal.SERVICE_ROLE)
+                && !serviceEndpoints.accepts(request.getMethod(), request.getRequestURI().substring(request.getContextPath().length()))) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Service tokens are not accepted on this endpoint");
+            return;
+        }
+        request.setAttribute(PRINCIPAL_ATTRIBUTE, principal.get());
+        filterChain.doFilter(new AuthenticatedRequest(request, principal.get()), response);
+    }
+
+    private static class AuthenticatedRequest extends HttpServletRequestWrapper {
+
+        private final JwtPrincipal principal;
+
+        AuthenticatedRequest(HttpServletRequest request, JwtPrincipal principal) {
+            super(request);
+            this.principal = principal;
+        }
+
+        @Override
+        public Principal getUserPrincipal() {
+            return principal;
+        }
+
+        @Override
+        public String getRemoteUser() {
+            return principal.getName();
+        }
+
+        @Override
+        public boolean isUserInRole(String role) {
+            return principal.hasRole(role);
+        }
+    }
+}
+
+// Made with Bob
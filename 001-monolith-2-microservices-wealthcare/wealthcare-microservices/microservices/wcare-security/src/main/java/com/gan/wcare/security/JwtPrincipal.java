@@ -0,0 +1,27 @@
+package com.gan.wcare.security;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * Caller of a request, from the claims of its verified JWT
+ * role is the user role (CUSTOMER, WEALTH_MANAGER, BUSINESS_MANAGER) or SERVICE for another service.
+ */
+public record JwtPrincipal(String username, Long userId, String role, Instant expiresAt) implements Principal {
+
+    public static final String SERVICE_ROLE = "SERVICE";
+
+    // Request (servlet) or exchange (WebFlux) attribute holding the caller; here so WebFlux code never loads servlet classes
+    public static final String ATTRIBUTE = JwtPrincipal.class.getName();
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public boolean hasRole(String role) {
+        return this.role != null && this.role.equals(role);
+    }
+}
+
+// Made with Bob
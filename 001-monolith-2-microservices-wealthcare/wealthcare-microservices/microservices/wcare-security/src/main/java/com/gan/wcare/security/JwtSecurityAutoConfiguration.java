@@ -0,0 +1,70 @@
+package com.gan.wcare.security;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * JWT Security Auto-Configuration
+ * Every service with this module on its classpath verifies User Service tokens locally (JwtVerifier), with
+ * JwtAuthenticationFilter in servlet applications or ReactiveJwtAuthenticationFilter in WebFlux ones, and signs its
+ * own service token for WebClient calls (ServiceTokenProvider).
+ * Properties: jwt.secret, security.jwt.enabled, security.jwt.claims-cache.*, security.jwt.service-token.ttl and
+ * security.jwt.service-endpoints.
+ */
+@AutoConfiguration
+public class JwtSecurityAutoConfiguration {
+
+    @Bean
+    public JwtVerifier jwtVerifier() {
+        return new JwtVerifier();
+    }
+
+    @Bean
+    public ServiceEndpoints serviceEndpoints(Environment environment) {
+        // A YAML list or a comma separated value
+        List<String> endpoints = Binder.get(environment)
+                .bind("security.jwt.service-endpoints", Bindable.listOf(String.class))
+                .orElse(List.of());
+        return new ServiceEndpoints(endpoints);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.web.reactive.function.client.ExchangeFilterFunction")
+    static class ServiceTokenConfiguration {
+
+        @Bean
+        public ServiceTokenProvider serviceTokenProvider() {
+            return new ServiceTokenProvider();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class ServletConfiguration {
+
+        @Bean
+        public JwtAuthenticationFilter jwtAuthenticationFilter() {
+            return new JwtAuthenticationFilter();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    static class ReactiveConfiguration {
+
+        @Bean
+        public ReactiveJwtAuthenticationFilter reactiveJwtAuthenticationFilter() {
+            return new ReactiveJwtAuthenticationFilter();
+        }
+    }
+}
+
+// Made with Bob
@@ -0,0 +1,141 @@
+package com.gan.wcare.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * JWT Verifier
+ * Verifies tokens issued by User Service (JwtUtil) locally, with the shared jwt.secret: no call to User Service.
+ * The signing key and parser are built once. Verified tokens are kept in a bounded cache keyed by the token's
+ * SHA-256 hash, until claims-cache.ttl or the token's expiry, whichever comes first, so a caller's repeated
+ * requests skip the signature check and claims parsing. Tokens that fail verification are not cached.
+ */
+public class JwtVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtVerifier.class);
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    @Value("${security.jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
+    @Value("${security.jwt.claims-cache.ttl:5m}")
+    private Duration claimsCacheTtl;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private Cache<String, JwtPrincipal> claimsCache;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new Expiry<String, JwtPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String key, JwtPrincipal principal, long currentTime) {
+                        if (principal.expiresAt() == null) {
+                            return claimsCacheTtl.toNanos();
+                        }
+                        Duration untilExpiry = Duration.between(Instant.now(), principal.expiresAt());
+                        return Math.max(0, Math.min(claimsCacheTtl.toNanos(), untilExpiry.toNanos()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, principal, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, claimsCache, "jwt-claims");
+    }
+
+    /**
+     * Caller of an Authorization header value ("Bearer <token>"), empty if it is missing or not a valid, unexpired token
+     */
+    public Optional<JwtPrincipal> verifyAuthorization(String authorization) {
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return Optional.empty();
+        }
+        return verify(authorization.substring(BEARER_PREFIX.length()).trim());
+    }
+
+    /**
+     * Caller of a token, empty if it is not a valid, unexpired token
+     */
+    public Optional<JwtPrincipal> verify(String token) {
+        if (token.isEmpty()) {
+            return Optional.empty();
+        }
+        String key = hash(token);
+        JwtPrincipal cached = claimsCache.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        try {
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            JwtPrincipal principal = new JwtPrincipal(
+                    claims.getSubject(),
+                    claims.get("userId", Long.class),
+                    claims.get("role", String.class),
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+            claimsCache.put(key, principal);
+            return Optional.of(principal);
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("JWT rejected: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    SecretKey getSigningKey() {
+        return signingKey;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
+
+// Made with Bob
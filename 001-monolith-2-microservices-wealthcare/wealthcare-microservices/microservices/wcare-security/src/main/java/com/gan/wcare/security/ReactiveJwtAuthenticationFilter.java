@@ -0,0 +1,59 @@
+package com.gan.wcare.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Reactive JWT Authentication Filter
+ * JwtAuthenticationFilter of reactive (WebFlux) applications: the caller is the exchange's principal (a JwtPrincipal)
+ * and the exchange attribute JwtPrincipal.ATTRIBUTE.
+ */
+public class ReactiveJwtAuthenticationFilter implements WebFilter {
+
+    @Autowired
+    private JwtVerifier jwtVerifier;
+
+    @Autowired
+    private ServiceEndpoints serviceEndpoints;
+
+    @Value("${security.jwt.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!enabled
+                || request.getMethod() == HttpMethod.OPTIONS
+                || !request.getPath().pathWithinApplication().value().startsWith("/api/")) {
+            return chain.filter(exchange);
+        }
+
+        Optional<JwtPrincipal> principal = jwtVerifier.verifyAuthorization(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+        if (principal.isEmpty()) {
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            return exchange.getResponse().setComplete();
+        }
+        if (principal.get().hasRole(JwtPrincipal.SERVICE_ROLE)
+                && !serviceEndpoints.accepts(request.getMethod().name(), request.getPath().pathWithinApplication().value())) {
+            exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
+            return exchange.getResponse().setComplete();
+        }
+        exchange.getAttributes().put(JwtPrincipal.ATTRIBUTE, principal.get());
+        return chain.filter(exchange.mutate()
+                .principal(Mono.just(principal.get()))
+                .build());
+    }
+}
+
+// Made with Bob
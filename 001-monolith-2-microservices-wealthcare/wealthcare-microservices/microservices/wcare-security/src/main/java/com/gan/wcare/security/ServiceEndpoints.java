@@ -0,0 +1,49 @@
+package com.gan.wcare.security;
+
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+
+/**
+ * Service Endpoints
+ * The endpoints of this service that accept service tokens (role SERVICE), from security.jwt.service-endpoints:
+ * entries of "METHOD /path/pattern" (Ant patterns, e.g. "HEAD /api/customers/*"). Empty means none.
+ */
+public class ServiceEndpoints {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<Endpoint> endpoints;
+
+    private record Endpoint(String method, String pattern) {
+    }
+
+    public ServiceEndpoints(List<String> endpoints) {
+        this.endpoints = endpoints.stream()
+                .map(String::trim)
+                .filter(entry -> !entry.isEmpty())
+                .map(ServiceEndpoints::parse)
+                .toList();
+    }
+
+    /**
+     * True when a service token may call this method and path (within the application)
+     */
+    public boolean accepts(String method, String path) {
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.method().equalsIgnoreCase(method) && pathMatcher.match(endpoint.pattern(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Endpoint parse(String entry) {
+        String[] parts = entry.split("\\s+");
+        if (parts.length != 2 || !parts[1].startsWith("/")) {
+            throw new IllegalArgumentException("security.jwt.service-endpoints entry must be \"METHOD /path\": " + entry);
+        }
+        return new Endpoint(parts[0], parts[1]);
+    }
+}
+
+// Made with Bob
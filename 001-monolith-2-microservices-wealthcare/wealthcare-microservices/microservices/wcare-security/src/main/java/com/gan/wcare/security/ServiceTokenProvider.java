@@ -0,0 +1,72 @@
+package com.gan.wcare.security;
+
+import io.jsonwebtoken.Jwts;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Service Token Provider
+ * Signs this service's own short-lived token (subject spring.application.name, role SERVICE) with the shared
+ * jwt.secret, and adds it to the WebClient calls to other services that carry no Authorization header.
+ * Calls shared between callers (cached validations) or not made for a request therefore need no user token.
+ * The token is reused until half of its ttl is left. Receiving services accept it only on the endpoints they
+ * list in security.jwt.service-endpoints.
+ */
+public class ServiceTokenProvider implements ExchangeFilterFunction {
+
+    @Autowired
+    private JwtVerifier jwtVerifier;
+
+    @Value("${spring.application.name}")
+    private String serviceName;
+
+    @Value("${security.jwt.service-token.ttl:10m}")
+    private Duration serviceTokenTtl;
+
+    private volatile ServiceToken serviceToken;
+
+    private record ServiceToken(String token, Instant refreshAt) {
+    }
+
+    /**
+     * Authorization header value for calls made by this service
+     */
+    public String getAuthorization() {
+        ServiceToken current = serviceToken;
+        if (current == null || Instant.now().isAfter(current.refreshAt())) {
+            Instant issuedAt = Instant.now();
+            String token = Jwts.builder()
+                    .subject(serviceName)
+                    .claim("role", JwtPrincipal.SERVICE_ROLE)
+                    .issuedAt(Date.from(issuedAt))
+                    .expiration(Date.from(issuedAt.plus(serviceTokenTtl)))
+                    .signWith(jwtVerifier.getSigningKey())
+                    .compact();
+            current = new ServiceToken("Bearer " + token, issuedAt.plus(serviceTokenTtl.dividedBy(2)));
+            serviceToken = current;
+        }
+        return current.token();
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (request.headers().containsKey(HttpHeaders.AUTHORIZATION)) {
+            return next.exchange(request);
+        }
+        return next.exchange(ClientRequest.from(request)
+                .header(HttpHeaders.AUTHORIZATION, getAuthorization())
+                .build());
+    }
+}
+
+// Made with Bob
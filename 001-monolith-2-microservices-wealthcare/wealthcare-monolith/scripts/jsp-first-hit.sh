@@ -0,0 +1,18 @@
+#!/bin/sh
+#    First hit time of every JSP after a (re)deploy, to compare startup with and without
+#    the JSP precompilation of wcareWeb/WebContent/WEB-INF/ibm-web-ext.xml (prepareJSPs).
+#    Run it right after the application has started, then a second time for the warm numbers.
+#
+#    sh scripts/jsp-first-hit.sh [http://localhost:9080/wcareWeb]
+
+BASE_URL=${1:-http://localhost:9080/wcareWeb}
+WEB_CONTENT=$(dirname "$0")/../wcareWeb/WebContent
+
+total=0
+for jsp in $(cd "$WEB_CONTENT" && find . -name "*.jsp" | sed 's|^\./||' | sort); do
+    #    The pages expect request attributes set by the servlets, an error status still measures the compilation
+    millis=$(curl -s -o /dev/null -w "%{time_total}" "$BASE_URL/$jsp" | awk '{ printf "%d", $1 * 1000 }')
+    total=$((total + millis))
+    printf "%8s ms  %s\n" "$millis" "$jsp"
+done
+printf "%8s ms  total\n" "$total"
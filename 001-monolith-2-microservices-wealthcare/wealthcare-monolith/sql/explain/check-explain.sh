@@ -0,0 +1,32 @@
+#!/bin/sh
+#    Fails (exit 1) when a DAO lookup of sql/explain/explain-dao-queries.sql is planned with a table scan
+#    of a WealthCare table, i.e. when an index of sql/migrations/V002__secondary_indexes.sql is not used,
+#    or when the lookups could not all be explained. Load production like volumes first (sql/generate-data.sh).
+#
+#    db2 connect to <db>
+#    sh sql/explain/check-explain.sh
+
+EXPLAIN_DIR=$(dirname "$0")
+EXPECTED_STATEMENTS=10
+
+#    db2 exits with 1 when a query returns no rows, 2 on warnings, 4 and more on errors
+db2 -tvf "$EXPLAIN_DIR/explain-dao-queries.sql"
+if [ $? -ge 4 ]; then
+    echo "check-explain : the DAO lookups could not be explained"
+    exit 1
+fi
+
+explained=$(db2 -x "select count(distinct QUERYNO) from EXPLAIN_STATEMENT where EXPLAIN_LEVEL = 'P' and QUERYNO between 3101 and 3199" | tr -d ' ')
+if [ "$explained" != "$EXPECTED_STATEMENTS" ]; then
+    echo "check-explain : $explained of $EXPECTED_STATEMENTS DAO lookups explained"
+    exit 1
+fi
+
+#    One line per table scan : QUERYNO and table
+scans=$(db2 -x -tf "$EXPLAIN_DIR/table-scans.sql" | grep '^ *[0-9]')
+if [ -n "$scans" ]; then
+    echo "check-explain : table scans (QUERYNO, table) :"
+    echo "$scans"
+    exit 1
+fi
+echo "check-explain : the $EXPECTED_STATEMENTS DAO lookups use indexes"
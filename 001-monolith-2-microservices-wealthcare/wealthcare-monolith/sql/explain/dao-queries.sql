@@ -0,0 +1,30 @@
+--    The DAO lookups (JPQL translated to SQL) with sample values from sql/generate-data.sh.
+--    Time them before and after sql/migrations/V002__secondary_indexes.sql :
+--    db2batch -d <db> -f sql/explain/dao-queries.sql -i complete
+
+--    WcUsersDao.findOneByEmailId
+    select * from Wcusers where EmailId = 'gen50000@wcare.com';
+--    WcUsersDao.findOneByUserName
+    select * from Wcusers where UserName = 'gen50000';
+--    WcBusinessManagerDao.findOneByUserId
+    select * from WcBusinessManager where WcUserId = 10001;
+--    WcWealthManagerDao.findOneByUserId
+    select * from WcWealthManager where WcUserId = 10004;
+--    WcCustomerDao.findOneByUserId
+    select * from WcCustomer where WcUserId = 60000;
+--    customers of a wealth manager
+    select id, FirstName, LastName from WcCustomer where WcWealthManagerId = 30001 order by id fetch first 50 rows only;
+--    WcGoalDao.findAllByCustomerId
+    select * from WcGoal where WcCustomerId = 90000;
+--    WcInvestmentDao.findAllByGoalId
+    select * from WcInvestment where WcGoalId = 200000;
+--    portfolio summary of a goal
+    select sum(InvestmentAmount), sum(StockAmount), sum(MutualFundAmount), sum(FixedDepositAmount) from WcInvestment where WcGoalId = 200000;
+--    PortfolioExportDao.findPortfolioRows
+    select c.id, c.FirstName, c.LastName, c.EmailId, c.WcWealthManagerId, g.id, g.GoalReference, g.TargetDate, g.TargetAmount,
+           i.id, i.InvestmentDate, i.InvestmentAmount, i.StockAmount, i.MutualFundAmount, i.FixedDepositAmount
+      from WcCustomer c
+      left outer join WcGoal g on g.WcCustomerId = c.id
+      left outer join WcInvestment i on i.WcGoalId = g.id
+     where c.id > 90000 and c.id <= 90200
+     order by c.id, g.id, i.id;
@@ -0,0 +1,12 @@
+--    DAO lookups explained by sql/explain/explain-dao-queries.sql that still scan a whole table.
+--    Expected : no rows, sql/explain/check-explain.sh fails on any.
+
+    select st.QUERYNO, s.OBJECT_NAME as SCANNED_TABLE
+      from EXPLAIN_STATEMENT st
+      join EXPLAIN_OPERATOR o on o.EXPLAIN_TIME = st.EXPLAIN_TIME and o.SOURCE_NAME = st.SOURCE_NAME
+           and o.STMTNO = st.STMTNO and o.SECTNO = st.SECTNO
+      join EXPLAIN_STREAM s on s.EXPLAIN_TIME = o.EXPLAIN_TIME and s.SOURCE_NAME = o.SOURCE_NAME
+           and s.STMTNO = o.STMTNO and s.SECTNO = o.SECTNO and s.TARGET_ID = o.OPERATOR_ID and s.SOURCE_TYPE = 'D'
+     where st.EXPLAIN_LEVEL = 'P' and st.QUERYNO between 3101 and 3199
+       and o.OPERATOR_TYPE = 'TBSCAN'
+       and s.OBJECT_NAME in ('WCUSERS', 'WCBUSINESSMANAGER', 'WCWEALTHMANAGER', 'WCCUSTOMER', 'WCGOAL', 'WCINVESTMENT');
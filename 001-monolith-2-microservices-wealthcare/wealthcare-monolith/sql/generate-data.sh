@@ -0,0 +1,61 @@
+#!/bin/sh
+#    Generates production like volumes in DB2 to measure table scan versus index latency
+#    (sql/explain/dao-queries.sql before and after sql/migrations/V002__secondary_indexes.sql).
+#    Rows are added on top of sql/data.sql, in chunks of 10000 customers to keep each transaction small.
+#
+#    db2 connect to <db>
+#    sh sql/generate-data.sh [customers] [goalsPerCustomer] [investmentsPerGoal]
+
+CUSTOMERS=${1:-100000}
+GOALS=${2:-3}
+INVESTMENTS=${3:-4}
+CHUNK=10000
+
+#    db2 exits with 2 on warnings (SQL0347W for the recursive row generators), 4 and more on errors
+run() {
+    db2 -v "$1"
+    if [ $? -ge 4 ]; then
+        exit 1
+    fi
+}
+
+start=1
+while [ $start -le $CUSTOMERS ]; do
+    end=$((start + CHUNK - 1))
+    if [ $end -gt $CUSTOMERS ]; then
+        end=$CUSTOMERS
+    fi
+    echo "customers $start - $end"
+
+    run "insert into Wcusers (UserName, Password, EmailId, Role)
+        with gen(n) as (values $start union all select n + 1 from gen where n < $end)
+        select 'gen' || varchar(n), 'gen' || varchar(n), 'gen' || varchar(n) || '@wcare.com', 'CU' from gen"
+
+    run "insert into WcCustomer (WcUserId, WcWealthManagerId, FirstName, LastName, Gender, Age, AvgIncome, Married,
+            NoOfChildren, City, Phone, EmailId, StartDate, Country, ZipCode)
+        select u.id, 30001 + mod(u.id, 6), u.UserName, 'Generated', case when mod(u.id, 2) = 0 then 'Male' else 'Female' end,
+            25 + mod(u.id, 40), 50000 + mod(u.id, 100) * 1000, case when mod(u.id, 2) = 0 then true else false end,
+            mod(u.id, 3), 'Austin', '423234323', u.EmailId, current date - mod(u.id, 3650) days, 'US', '73301'
+        from Wcusers u
+        where u.UserName like 'gen%' and not exists (select 1 from WcCustomer c where c.WcUserId = u.id)"
+
+    run "insert into WcGoal (WcCustomerId, WcWealthManagerId, GoalReference, GoalDesc, StartDate, TargetDate, TargetAmount)
+        with k(n) as (values 1 union all select n + 1 from k where n < $GOALS)
+        select c.id, c.WcWealthManagerId, 'GEN-' || varchar(c.id) || '-' || varchar(k.n), 'Generated goal ' || varchar(k.n),
+            c.StartDate, c.StartDate + (5 + k.n) years, 100000 * k.n
+        from WcCustomer c, k
+        where c.LastName = 'Generated' and not exists (select 1 from WcGoal g where g.WcCustomerId = c.id)"
+
+    run "insert into WcInvestment (WcGoalId, InvestmentDate, InvestmentAmount, StockAmount, MutualFundAmount, FixedDepositAmount)
+        with k(n) as (values 1 union all select n + 1 from k where n < $INVESTMENTS), a(goalId, startDate, amount) as (
+            select g.id, g.StartDate, round(1000 + rand() * 9000, 0) from WcGoal g
+            where g.GoalReference like 'GEN-%' and not exists (select 1 from WcInvestment i where i.WcGoalId = g.id))
+        select a.goalId, a.startDate + (k.n * 30) days, a.amount, a.amount * 0.5, a.amount * 0.3, a.amount * 0.2
+        from a, k"
+
+    start=$((end + 1))
+done
+
+for table in Wcusers WcCustomer WcGoal WcInvestment; do
+    run "runstats on table $table with distribution and indexes all"
+done
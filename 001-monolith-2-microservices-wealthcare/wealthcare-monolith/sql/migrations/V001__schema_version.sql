@@ -0,0 +1,11 @@
+--    Migrations for DB2, run in version order after sql/schema-db2.sql
+--    db2 connect to <db> ; db2 -tvf sql/migrations/V001__schema_version.sql
+
+    create table WcSchemaVersion (
+        Version INTEGER NOT NULL,
+        Description varchar(80),
+        AppliedOn timestamp NOT NULL DEFAULT CURRENT TIMESTAMP,
+        PRIMARY KEY (Version)
+    );
+
+    insert into WcSchemaVersion (Version, Description) values (1, 'schema version table');
@@ -0,0 +1,31 @@
+--    Secondary indexes for the DAO access paths. schema-db2.sql only declares primary keys,
+--    so every lookup below was a table scan.
+--    db2 -tvf sql/migrations/V002__secondary_indexes.sql
+
+--    WcUsersDao.findOneByEmailId / findOneByUserName (login)
+    create index IxWcusersEmailId on Wcusers (EmailId);
+    create index IxWcusersUserName on Wcusers (UserName);
+
+--    WcBusinessManagerDao.findOneByUserId / WcWealthManagerDao.findOneByUserId
+    create index IxWcBusinessManagerUserId on WcBusinessManager (WcUserId);
+    create index IxWcWealthManagerUserId on WcWealthManager (WcUserId);
+
+--    WcCustomerDao.findOneByUserId, customers of a wealth manager
+    create index IxWcCustomerUserId on WcCustomer (WcUserId);
+    create index IxWcCustomerWealthManagerId on WcCustomer (WcWealthManagerId, id);
+
+--    WcGoalDao.findAllByCustomerId, PortfolioExportDao join customer -> goal
+    create index IxWcGoalCustomerId on WcGoal (WcCustomerId, id);
+
+--    WcInvestmentDao.findAllByGoalId, PortfolioExportDao join goal -> investment.
+--    Covering for the portfolio summary : the amounts are read from the index only.
+    create index IxWcInvestmentGoalId on WcInvestment (WcGoalId, id, InvestmentAmount, StockAmount, MutualFundAmount, FixedDepositAmount);
+
+    runstats on table Wcusers and indexes all;
+    runstats on table WcBusinessManager and indexes all;
+    runstats on table WcWealthManager and indexes all;
+    runstats on table WcCustomer and indexes all;
+    runstats on table WcGoal and indexes all;
+    runstats on table WcInvestment and indexes all;
+
+    insert into WcSchemaVersion (Version, Description) values (2, 'secondary indexes for DAO lookups');
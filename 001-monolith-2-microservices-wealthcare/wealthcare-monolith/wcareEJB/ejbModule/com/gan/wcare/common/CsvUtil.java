@@ -0,0 +1,70 @@
+package com.gan.wcare.common;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CsvUtil {
+
+    //Splits one CSV line, supports double quoted values with embedded commas and "" escapes
+    public static List<String> parseLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+
+    //Column name (lower case) -> column index
+    public static Map<String, Integer> headerIndex(String headerLine) {
+        Map<String, Integer> index = new HashMap<>();
+        List<String> columns = parseLine(headerLine);
+        for (int i = 0; i < columns.size(); i++) {
+            index.put(columns.get(i).toLowerCase(), i);
+        }
+        return index;
+    }
+
+    public static String value(List<String> values, Map<String, Integer> headerIndex, String column) {
+        Integer position = headerIndex.get(column.toLowerCase());
+        if (position == null || position >= values.size()) {
+            return "";
+        }
+        return values.get(position);
+    }
+
+    //Quotes the value when it contains a separator, a quote or a line break
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,347 @@
+package com.gan.wcare.ejb.analytics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+import com.gan.wcare.ejb.model.AnalyticsFilter;
+import com.gan.wcare.ejb.model.AnalyticsGroupTotal;
+
+/**
+ * Column oriented copy of WCINVESTMENT (joined with the goal for customer and wealth manager).
+ * One primitive array per column, rows kept in investment id order. Goal, customer and wealth manager
+ * ids are dictionary encoded to dense codes : a row holds only its goal code, the goal its customer code
+ * and the customer its wealth manager code (the one of its latest appended row), so group by is a plain
+ * array index. Amounts are floats (to the cent below 131072, to the unit below 16.7 million), totals are
+ * summed in double.
+ * 26 bytes per row (id, goal code, year, 4 amounts) plus about 24 per distinct goal and per customer.
+ * Deleted rows are only flagged until compact() drops them, dictionary entries are kept.
+ * Not thread safe : the owner (InvestmentAnalyticsEJB) serializes writes.
+ */
+public class InvestmentColumnStore {
+
+    public enum GroupBy {
+        NONE, WEALTH_MANAGER, VINTAGE_YEAR, CUSTOMER
+    }
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int size;
+    private int deletedRows;
+    private int lastId;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] goalCodes = new int[INITIAL_CAPACITY];
+    private short[] vintageYears = new short[INITIAL_CAPACITY];
+    private float[] investmentAmounts = new float[INITIAL_CAPACITY];
+    private float[] stockAmounts = new float[INITIAL_CAPACITY];
+    private float[] mutualFundAmounts = new float[INITIAL_CAPACITY];
+    private float[] fixedDepositAmounts = new float[INITIAL_CAPACITY];
+    private final BitSet deleted = new BitSet();
+
+    private final Dictionary goals = new Dictionary();
+    private final Dictionary customers = new Dictionary();
+    private final Dictionary wealthManagers = new Dictionary();
+    //By goal code and by customer code
+    private int[] goalCustomerCodes = new int[INITIAL_CAPACITY];
+    private int[] customerWealthManagerCodes = new int[INITIAL_CAPACITY];
+
+    public int size() {
+        return size;
+    }
+
+    public int deletedRows() {
+        return deletedRows;
+    }
+
+    //Highest id appended, kept when its row is deleted and compacted
+    public int lastId() {
+        return lastId;
+    }
+
+    //Rows must be appended in ascending id order (IDENTITY keys are)
+    public void append(int id, int goalId, int customerId, int wealthManagerId, int vintageYear,
+                       double investmentAmount, double stockAmount, double mutualFundAmount, double fixedDepositAmount) {
+        if (size == ids.length) {
+            grow();
+        }
+        int customerCode = customers.encode(customerId);
+        if (customerCode == customerWealthManagerCodes.length) {
+            customerWealthManagerCodes = Arrays.copyOf(customerWealthManagerCodes, customerCode * 2);
+        }
+        customerWealthManagerCodes[customerCode] = wealthManagers.encode(wealthManagerId);
+        int goalCode = goals.encode(goalId);
+        if (goalCode == goalCustomerCodes.length) {
+            goalCustomerCodes = Arrays.copyOf(goalCustomerCodes, goalCode * 2);
+        }
+        goalCustomerCodes[goalCode] = customerCode;
+
+        ids[size] = id;
+        goalCodes[size] = goalCode;
+        vintageYears[size] = (short) vintageYear;
+        investmentAmounts[size] = (float) investmentAmount;
+        stockAmounts[size] = (float) stockAmount;
+        mutualFundAmounts[size] = (float) mutualFundAmount;
+        fixedDepositAmounts[size] = (float) fixedDepositAmount;
+        deleted.clear(size);
+        size++;
+        lastId = id;
+    }
+
+    public boolean update(int id, int vintageYear, double investmentAmount, double stockAmount, double mutualFundAmount, double fixedDepositAmount) {
+        int row = rowOf(id);
+        if (row < 0) {
+            return false;
+        }
+        vintageYears[row] = (short) vintageYear;
+        investmentAmounts[row] = (float) investmentAmount;
+        stockAmounts[row] = (float) stockAmount;
+        mutualFundAmounts[row] = (float) mutualFundAmount;
+        fixedDepositAmounts[row] = (float) fixedDepositAmount;
+        return true;
+    }
+
+    public boolean remove(int id) {
+        int row = rowOf(id);
+        if (row < 0) {
+            return false;
+        }
+        deleted.set(row);
+        deletedRows++;
+        return true;
+    }
+
+    public int removeByGoalId(int goalId) {
+        int goalCode = goals.code(goalId);
+        if (goalCode < 0) {
+            return 0;
+        }
+        int removed = 0;
+        for (int i = 0; i < size; i++) {
+            if (goalCodes[i] == goalCode && !deleted.get(i)) {
+                deleted.set(i);
+                removed++;
+            }
+        }
+        deletedRows += removed;
+        return removed;
+    }
+
+    //Drops the deleted rows, keeping id order, returns how many
+    public int compact() {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (deleted.get(i)) {
+                continue;
+            }
+            if (kept != i) {
+                ids[kept] = ids[i];
+                goalCodes[kept] = goalCodes[i];
+                vintageYears[kept] = vintageYears[i];
+                investmentAmounts[kept] = investmentAmounts[i];
+                stockAmounts[kept] = stockAmounts[i];
+                mutualFundAmounts[kept] = mutualFundAmounts[i];
+                fixedDepositAmounts[kept] = fixedDepositAmounts[i];
+            }
+            kept++;
+        }
+        deleted.clear();
+        int removed = size - kept;
+        size = kept;
+        deletedRows = 0;
+        return removed;
+    }
+
+    public List<AnalyticsGroupTotal> aggregate(AnalyticsFilter filter, GroupBy groupBy) {
+        boolean[] selected = select(filter);
+
+        if (groupBy == GroupBy.WEALTH_MANAGER) {
+            return totals(selected, wealthManagers.size(),
+                    row -> customerWealthManagerCodes[goalCustomerCodes[goalCodes[row]]], wealthManagers::key, false);
+        }
+
+        if (groupBy == GroupBy.VINTAGE_YEAR) {
+            int minYear = Short.MAX_VALUE;
+            int maxYear = Short.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                if (selected[i]) {
+                    minYear = Math.min(minYear, vintageYears[i]);
+                    maxYear = Math.max(maxYear, vintageYears[i]);
+                }
+            }
+            if (minYear > maxYear) {
+                return new ArrayList<>();
+            }
+            final int firstYear = minYear;
+            return totals(selected, maxYear - minYear + 1, row -> vintageYears[row] - firstYear, code -> firstYear + code, false);
+        }
+
+        if (groupBy == GroupBy.CUSTOMER) {
+            return totals(selected, customers.size(), row -> goalCustomerCodes[goalCodes[row]], customers::key, false);
+        }
+
+        //The whole store, reported even without rows
+        return totals(selected, 1, row -> 0, code -> 0, true);
+    }
+
+    //Counts and sums of the selected rows by group code, groups without rows are left out unless keepEmpty
+    private List<AnalyticsGroupTotal> totals(boolean[] selected, int groups, IntUnaryOperator groupOfRow, IntUnaryOperator keyOfGroup,
+                                             boolean keepEmpty) {
+        long[] counts = new long[groups];
+        double[][] sums = new double[4][groups];
+        for (int i = 0; i < size; i++) {
+            if (selected[i]) {
+                int code = groupOfRow.applyAsInt(i);
+                counts[code]++;
+                sums[0][code] += investmentAmounts[i];
+                sums[1][code] += stockAmounts[i];
+                sums[2][code] += mutualFundAmounts[i];
+                sums[3][code] += fixedDepositAmounts[i];
+            }
+        }
+        List<AnalyticsGroupTotal> result = new ArrayList<>();
+        for (int code = 0; code < groups; code++) {
+            if (counts[code] > 0 || keepEmpty) {
+                result.add(new AnalyticsGroupTotal(keyOfGroup.applyAsInt(code), counts[code], sums[0][code], sums[1][code], sums[2][code], sums[3][code]));
+            }
+        }
+        return result;
+    }
+
+    //One pass per predicate over a single primitive column
+    private boolean[] select(AnalyticsFilter filter) {
+        boolean[] selected = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            selected[i] = !deleted.get(i);
+        }
+        if (filter == null) {
+            return selected;
+        }
+        if (filter.getWealthManagerId() > 0) {
+            int wanted = wealthManagers.code(filter.getWealthManagerId());
+            if (wanted < 0) {
+                Arrays.fill(selected, false);
+                return selected;
+            }
+            for (int i = 0; i < size; i++) {
+                selected[i] &= customerWealthManagerCodes[goalCustomerCodes[goalCodes[i]]] == wanted;
+            }
+        }
+        if (filter.getCustomerId() > 0) {
+            int wanted = customers.code(filter.getCustomerId());
+            if (wanted < 0) {
+                Arrays.fill(selected, false);
+                return selected;
+            }
+            for (int i = 0; i < size; i++) {
+                selected[i] &= goalCustomerCodes[goalCodes[i]] == wanted;
+            }
+        }
+        if (filter.getFromYear() > 0) {
+            int fromYear = filter.getFromYear();
+            for (int i = 0; i < size; i++) {
+                selected[i] &= vintageYears[i] >= fromYear;
+            }
+        }
+        if (filter.getToYear() > 0) {
+            int toYear = filter.getToYear();
+            for (int i = 0; i < size; i++) {
+                selected[i] &= vintageYears[i] <= toYear;
+            }
+        }
+        if (filter.getMinInvestmentAmount() > 0) {
+            //Rounded like the stored amounts, so an amount equal to the minimum is kept
+            float minAmount = (float) filter.getMinInvestmentAmount();
+            for (int i = 0; i < size; i++) {
+                selected[i] &= investmentAmounts[i] >= minAmount;
+            }
+        }
+        return selected;
+    }
+
+    private int rowOf(int id) {
+        int row = Arrays.binarySearch(ids, 0, size, id);
+        if (row < 0 || deleted.get(row)) {
+            return -1;
+        }
+        return row;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        goalCodes = Arrays.copyOf(goalCodes, capacity);
+        vintageYears = Arrays.copyOf(vintageYears, capacity);
+        investmentAmounts = Arrays.copyOf(investmentAmounts, capacity);
+        stockAmounts = Arrays.copyOf(stockAmounts, capacity);
+        mutualFundAmounts = Arrays.copyOf(mutualFundAmounts, capacity);
+        fixedDepositAmounts = Arrays.copyOf(fixedDepositAmounts, capacity);
+    }
+
+    //Id to dense code (0, 1, 2...) and back, an open addressing table of primitive ints
+    private static class Dictionary {
+
+        private int size;
+        private int[] keys = new int[16];
+        private int[] slotKeys = new int[32];
+        //code + 1, 0 is a free slot
+        private int[] slotCodes = new int[32];
+
+        int size() {
+            return size;
+        }
+
+        int key(int code) {
+            return keys[code];
+        }
+
+        //-1 when the key has no code
+        int code(int key) {
+            int mask = slotKeys.length - 1;
+            for (int slot = hash(key) & mask; slotCodes[slot] != 0; slot = (slot + 1) & mask) {
+                if (slotKeys[slot] == key) {
+                    return slotCodes[slot] - 1;
+                }
+            }
+            return -1;
+        }
+
+        int encode(int key) {
+            int code = code(key);
+            if (code >= 0) {
+                return code;
+            }
+            code = size++;
+            if (code == keys.length) {
+                keys = Arrays.copyOf(keys, code * 2);
+            }
+            keys[code] = key;
+            if (size * 2 > slotKeys.length) {
+                slotKeys = new int[slotKeys.length * 2];
+                slotCodes = new int[slotCodes.length * 2];
+                for (int c = 0; c < size; c++) {
+                    put(keys[c], c);
+                }
+            } else {
+                put(key, code);
+            }
+            return code;
+        }
+
+        private void put(int key, int code) {
+            int mask = slotKeys.length - 1;
+            int slot = hash(key) & mask;
+            while (slotCodes[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slotKeys[slot] = key;
+            slotCodes[slot] = code + 1;
+        }
+
+        private static int hash(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
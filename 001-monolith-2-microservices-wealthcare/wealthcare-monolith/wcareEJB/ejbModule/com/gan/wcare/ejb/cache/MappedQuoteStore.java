@@ -0,0 +1,253 @@
+package com.gan.wcare.ejb.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+import com.gan.wcare.common.LogUtil;
+
+/**
+ * Off heap quote cache backed by a memory mapped file, so it survives a redeploy or a restart.
+ *
+ * Open addressing hash table (linear probing) of fixed size records keyed by investment id :
+ *   int investmentId (0 = free) | int unused | long createdTimeInMilliSeconds | double quoteValue
+ * Writes go straight into the mapping and the OS writes the dirty pages behind.
+ * Nothing is allocated on the heap per lookup.
+ *
+ * Lookups take no lock : an optimistic read of the record, retried under the read lock when a write
+ * overlapped it. Writers are serialized and lock readers out only while writing one record. Growing copies
+ * into a new file while lookups keep reading the current table, which is then replaced in one step.
+ */
+public class MappedQuoteStore {
+
+    private static final int MAGIC = 0x57435143; // "WCQC"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 24;
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final double MAX_LOAD_FACTOR = 0.7;
+
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_VERSION = 4;
+    private static final int OFFSET_CAPACITY = 8;
+    private static final int OFFSET_SIZE = 12;
+
+    private static MappedQuoteStore stockQuotes;
+    private static MappedQuoteStore mutualQuotes;
+
+    private final File file;
+    private final long openedAtInMilliSeconds;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final StampedLock recordLock = new StampedLock();
+    private volatile Table table;
+    private volatile int size;
+
+    //Mapping and slot count, replaced together when the store grows
+    private static final class Table {
+        final MappedByteBuffer buffer;
+        final int capacity;
+
+        Table(MappedByteBuffer buffer, int capacity) {
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+    }
+
+    public static synchronized MappedQuoteStore stockQuotes() {
+        if (stockQuotes == null) {
+            stockQuotes = open("stock-quotes.dat");
+        }
+        return stockQuotes;
+    }
+
+    public static synchronized MappedQuoteStore mutualQuotes() {
+        if (mutualQuotes == null) {
+            mutualQuotes = open("mutual-quotes.dat");
+        }
+        return mutualQuotes;
+    }
+
+    //Directory from -Dwcare.quote.cache.dir, default <server working dir>/quote-cache
+    private static MappedQuoteStore open(String fileName) {
+        File directory = new File(System.getProperty("wcare.quote.cache.dir", System.getProperty("user.dir") + File.separator + "quote-cache"));
+        directory.mkdirs();
+        try {
+            return new MappedQuoteStore(new File(directory, fileName));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to map quote cache " + fileName + " in " + directory, e);
+        }
+    }
+
+    public MappedQuoteStore(File file) throws IOException {
+        this.file = file;
+        this.openedAtInMilliSeconds = System.currentTimeMillis();
+
+        if (file.exists() && file.length() >= HEADER_SIZE) {
+            MappedByteBuffer buffer = map(file, file.length());
+            if (buffer.getInt(OFFSET_MAGIC) == MAGIC && buffer.getInt(OFFSET_VERSION) == VERSION
+                    && file.length() == HEADER_SIZE + (long) buffer.getInt(OFFSET_CAPACITY) * RECORD_SIZE) {
+                table = new Table(buffer, buffer.getInt(OFFSET_CAPACITY));
+                size = buffer.getInt(OFFSET_SIZE);
+                LogUtil.log("MappedQuoteStore : reopened " + file + " with " + size + " quotes");
+                return;
+            }
+            LogUtil.log("MappedQuoteStore : ignoring incompatible file " + file);
+        }
+        table = new Table(create(file, INITIAL_CAPACITY), INITIAL_CAPACITY);
+        size = 0;
+    }
+
+    /**
+     * Returns the cached quote, or NaN when there is none or it is older than maxAgeInMilliSeconds.
+     * Quotes written before this store was opened count as created at open time, so after a restart
+     * they are served for one more refresh period instead of all being recomputed at once.
+     */
+    public double getIfFresh(int investmentId, long currentTimeInMilliSeconds, long maxAgeInMilliSeconds) {
+        long stamp = recordLock.tryOptimisticRead();
+        double quote = read(table, investmentId, currentTimeInMilliSeconds, maxAgeInMilliSeconds);
+        if (!recordLock.validate(stamp)) {
+            stamp = recordLock.readLock();
+            try {
+                quote = read(table, investmentId, currentTimeInMilliSeconds, maxAgeInMilliSeconds);
+            } finally {
+                recordLock.unlockRead(stamp);
+            }
+        }
+        return quote;
+    }
+
+    public void put(int investmentId, long createdTimeInMilliSeconds, double quoteValue) {
+        writeLock.lock();
+        try {
+            Table current = table;
+            int offset = offset(findSlot(current, investmentId));
+            boolean added = current.buffer.getInt(offset) == 0;
+            if (added && size + 1 > current.capacity * MAX_LOAD_FACTOR) {
+                current = grow(current);
+                offset = offset(findSlot(current, investmentId));
+            }
+
+            long stamp = recordLock.writeLock();
+            try {
+                current.buffer.putLong(offset + 8, createdTimeInMilliSeconds);
+                current.buffer.putDouble(offset + 16, quoteValue);
+                current.buffer.putInt(offset, investmentId);
+            } finally {
+                recordLock.unlockWrite(stamp);
+            }
+            if (added) {
+                size++;
+                current.buffer.putInt(OFFSET_SIZE, size);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void flush() {
+        table.buffer.force();
+    }
+
+    //NaN when absent or stale. Every key is written last and never removed, and the table is never full,
+    //so the probe ends even when a write overlaps it (the caller then reads again under the read lock)
+    private double read(Table current, int investmentId, long currentTimeInMilliSeconds, long maxAgeInMilliSeconds) {
+        int offset = offset(findSlot(current, investmentId));
+        if (current.buffer.getInt(offset) == 0) {
+            return Double.NaN;
+        }
+        long created = Math.max(current.buffer.getLong(offset + 8), openedAtInMilliSeconds);
+        if (currentTimeInMilliSeconds - created >= maxAgeInMilliSeconds) {
+            return Double.NaN;
+        }
+        return current.buffer.getDouble(offset + 16);
+    }
+
+    //Slot holding the id, or the free slot where it would go
+    private static int findSlot(Table current, int investmentId) {
+        int mask = current.capacity - 1;
+        int slot = mix(investmentId) & mask;
+        while (true) {
+            int key = current.buffer.getInt(offset(slot));
+            if (key == investmentId || key == 0) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    //Called by the writer : the current table does not change while it is copied, lookups keep reading it
+    private Table grow(Table current) {
+        MappedByteBuffer buffer = current.buffer;
+        int capacity = current.capacity;
+        int newCapacity = capacity * 2;
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            MappedByteBuffer newBuffer = create(tmp, newCapacity);
+            int mask = newCapacity - 1;
+            for (int slot = 0; slot < capacity; slot++) {
+                int key = buffer.getInt(offset(slot));
+                if (key == 0) {
+                    continue;
+                }
+                int target = mix(key) & mask;
+                while (newBuffer.getInt(HEADER_SIZE + target * RECORD_SIZE) != 0) {
+                    target = (target + 1) & mask;
+                }
+                int to = HEADER_SIZE + target * RECORD_SIZE;
+                newBuffer.putLong(to + 8, buffer.getLong(offset(slot) + 8));
+                newBuffer.putDouble(to + 16, buffer.getDouble(offset(slot) + 16));
+                newBuffer.putInt(to, key);
+            }
+            newBuffer.putInt(OFFSET_SIZE, size);
+            newBuffer.force();
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+            Table grown = new Table(newBuffer, newCapacity);
+            table = grown;
+            LogUtil.log("MappedQuoteStore : " + file + " grown to " + newCapacity + " slots");
+            return grown;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to grow quote cache " + file, e);
+        }
+    }
+
+    private static MappedByteBuffer create(File file, int capacity) throws IOException {
+        long length = HEADER_SIZE + (long) capacity * RECORD_SIZE;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(0);
+            raf.setLength(length);
+        }
+        MappedByteBuffer buffer = map(file, length);
+        buffer.putInt(OFFSET_MAGIC, MAGIC);
+        buffer.putInt(OFFSET_VERSION, VERSION);
+        buffer.putInt(OFFSET_CAPACITY, capacity);
+        buffer.putInt(OFFSET_SIZE, 0);
+        return buffer;
+    }
+
+    private static MappedByteBuffer map(File file, long length) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+        }
+    }
+
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+    //Investment ids are sequential, spread them over the table
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,29 @@
+package com.gan.wcare.ejb.metrics;
+
+public class DaoMetrics {
+
+    private final LatencyHistogram entityManagerLatency = new LatencyHistogram();
+    private final LatencyHistogram queryLatency = new LatencyHistogram();
+    private final LatencyHistogram resultSize = new LatencyHistogram();
+
+    public void recordEntityManager(long elapsedNanos) {
+        entityManagerLatency.record(elapsedNanos);
+    }
+
+    public void recordQuery(long elapsedNanos, int rows) {
+        queryLatency.record(elapsedNanos);
+        resultSize.record(rows);
+    }
+
+    public LatencyHistogram getEntityManagerLatency() {
+        return entityManagerLatency;
+    }
+
+    public LatencyHistogram getQueryLatency() {
+        return queryLatency;
+    }
+
+    public LatencyHistogram getResultSize() {
+        return resultSize;
+    }
+}
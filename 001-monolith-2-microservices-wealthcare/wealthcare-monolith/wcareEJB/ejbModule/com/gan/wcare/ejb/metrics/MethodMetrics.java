@@ -0,0 +1,30 @@
+package com.gan.wcare.ejb.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class MethodMetrics {
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public void record(long elapsedNanos, boolean failed) {
+        invocations.increment();
+        if (failed) {
+            errors.increment();
+        }
+        latency.record(elapsedNanos);
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+}
@@ -0,0 +1,29 @@
+package com.gan.wcare.ejb.metrics;
+
+import java.lang.reflect.Method;
+
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.InvocationContext;
+
+/**
+ * Records latency, invocation and error counts for every EJB business method.
+ * Bound to all the beans of wcareEJB through META-INF/ejb-jar.xml.
+ */
+public class MetricsInterceptor {
+
+    @AroundInvoke
+    public Object record(InvocationContext context) throws Exception {
+        Method method = context.getMethod();
+        MethodMetrics metrics = MetricsRegistry.ejbMethod(method.getDeclaringClass().getSimpleName(), method.getName());
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = context.proceed();
+            failed = false;
+            return result;
+        } finally {
+            metrics.record(System.nanoTime() - start, failed);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.gan.wcare.ejb.metrics;
+
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * JVM wide store of the EJB and DAO metrics. DAOs are created with "new" all over
+ * the EJBs, so the registry is static rather than an injected bean.
+ * The text output follows the Prometheus exposition format.
+ */
+public class MetricsRegistry {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private static final ConcurrentMap<String, MethodMetrics> ejbMetrics = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, DaoMetrics> daoMetrics = new ConcurrentHashMap<>();
+
+    public static MethodMetrics ejbMethod(String bean, String method) {
+        return ejbMetrics.computeIfAbsent(bean + "|" + method, key -> new MethodMetrics());
+    }
+
+    public static DaoMetrics daoOperation(String dao, String operation) {
+        return daoMetrics.computeIfAbsent(dao + "|" + operation, key -> new DaoMetrics());
+    }
+
+    public static void reset() {
+        ejbMetrics.clear();
+        daoMetrics.clear();
+    }
+
+    public static void writeText(PrintWriter out) {
+        Map<String, MethodMetrics> ejbs = new TreeMap<>(ejbMetrics);
+        Map<String, DaoMetrics> daos = new TreeMap<>(daoMetrics);
+
+        out.println("# HELP wcare_ejb_invocations_total EJB business method invocations.");
+        out.println("# TYPE wcare_ejb_invocations_total counter");
+        for (Map.Entry<String, MethodMetrics> entry : ejbs.entrySet()) {
+            out.println("wcare_ejb_invocations_total" + ejbLabels(entry.getKey()) + " " + entry.getValue().getInvocations());
+        }
+
+        out.println("# HELP wcare_ejb_errors_total EJB business method invocations that threw an exception.");
+        out.println("# TYPE wcare_ejb_errors_total counter");
+        for (Map.Entry<String, MethodMetrics> entry : ejbs.entrySet()) {
+            out.println("wcare_ejb_errors_total" + ejbLabels(entry.getKey()) + " " + entry.getValue().getErrors());
+        }
+
+        out.println("# HELP wcare_ejb_latency_seconds EJB business method latency.");
+        out.println("# TYPE wcare_ejb_latency_seconds summary");
+        for (Map.Entry<String, MethodMetrics> entry : ejbs.entrySet()) {
+            writeSummary(out, "wcare_ejb_latency_seconds", ejbLabels(entry.getKey()), entry.getValue().getLatency(), true);
+        }
+
+        out.println("# HELP wcare_dao_entitymanager_seconds Time spent creating the EntityManager.");
+        out.println("# TYPE wcare_dao_entitymanager_seconds summary");
+        for (Map.Entry<String, DaoMetrics> entry : daos.entrySet()) {
+            writeSummary(out, "wcare_dao_entitymanager_seconds", daoLabels(entry.getKey()), entry.getValue().getEntityManagerLatency(), true);
+        }
+
+        out.println("# HELP wcare_dao_query_seconds Time spent executing the query or the unit of work.");
+        out.println("# TYPE wcare_dao_query_seconds summary");
+        for (Map.Entry<String, DaoMetrics> entry : daos.entrySet()) {
+            writeSummary(out, "wcare_dao_query_seconds", daoLabels(entry.getKey()), entry.getValue().getQueryLatency(), true);
+        }
+
+        out.println("# HELP wcare_dao_result_rows Number of rows returned by the query.");
+        out.println("# TYPE wcare_dao_result_rows summary");
+        for (Map.Entry<String, DaoMetrics> entry : daos.entrySet()) {
+            writeSummary(out, "wcare_dao_result_rows", daoLabels(entry.getKey()), entry.getValue().getResultSize(), false);
+        }
+    }
+
+    private static void writeSummary(PrintWriter out, String name, String labels, LatencyHistogram histogram, boolean nanos) {
+        String prefix = labels.substring(0, labels.length() - 1);
+        for (double quantile : QUANTILES) {
+            out.println(name + prefix + ",quantile=\"" + quantile + "\"} " + format(histogram.valueAtPercentile(quantile * 100), nanos));
+        }
+        out.println(name + "_max" + labels + " " + format(histogram.getMax(), nanos));
+        out.println(name + "_sum" + labels + " " + format(histogram.getSum(), nanos));
+        out.println(name + "_count" + labels + " " + histogram.getCount());
+    }
+
+    private static String format(long value, boolean nanos) {
+        if (nanos) {
+            return String.valueOf(value / NANOS_PER_SECOND);
+        }
+        return String.valueOf(value);
+    }
+
+    private static String ejbLabels(String key) {
+        String[] parts = key.split("\\|", 2);
+        return "{bean=\"" + parts[0] + "\",method=\"" + parts[1] + "\"}";
+    }
+
+    private static String daoLabels(String key) {
+        String[] parts = key.split("\\|", 2);
+        return "{dao=\"" + parts[0] + "\",operation=\"" + parts[1] + "\"}";
+    }
+}
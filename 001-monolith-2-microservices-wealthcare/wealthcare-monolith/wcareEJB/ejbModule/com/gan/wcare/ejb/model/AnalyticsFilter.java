@@ -0,0 +1,51 @@
+package com.gan.wcare.ejb.model;
+
+//0 means "no filter" for every field
+public class AnalyticsFilter {
+
+    private int wealthManagerId;
+    private int customerId;
+    private int fromYear;
+    private int toYear;
+    private double minInvestmentAmount;
+
+    public int getWealthManagerId() {
+        return wealthManagerId;
+    }
+
+    public void setWealthManagerId(int wealthManagerId) {
+        this.wealthManagerId = wealthManagerId;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(int customerId) {
+        this.customerId = customerId;
+    }
+
+    public int getFromYear() {
+        return fromYear;
+    }
+
+    public void setFromYear(int fromYear) {
+        this.fromYear = fromYear;
+    }
+
+    public int getToYear() {
+        return toYear;
+    }
+
+    public void setToYear(int toYear) {
+        this.toYear = toYear;
+    }
+
+    public double getMinInvestmentAmount() {
+        return minInvestmentAmount;
+    }
+
+    public void setMinInvestmentAmount(double minInvestmentAmount) {
+        this.minInvestmentAmount = minInvestmentAmount;
+    }
+}
@@ -0,0 +1,53 @@
+package com.gan.wcare.ejb.model;
+
+//Totals of one group : key is the wealth manager id, the vintage year or the customer id
+public class AnalyticsGroupTotal {
+
+    private int key;
+    private long count;
+    private double investmentAmount;
+    private double stockAmount;
+    private double mutualFundAmount;
+    private double fixedDepositAmount;
+
+    public AnalyticsGroupTotal(int key, long count, double investmentAmount, double stockAmount, double mutualFundAmount, double fixedDepositAmount) {
+        this.key = key;
+        this.count = count;
+        this.investmentAmount = investmentAmount;
+        this.stockAmount = stockAmount;
+        this.mutualFundAmount = mutualFundAmount;
+        this.fixedDepositAmount = fixedDepositAmount;
+    }
+
+    public void add(double investmentAmount, double stockAmount, double mutualFundAmount, double fixedDepositAmount) {
+        this.count++;
+        this.investmentAmount += investmentAmount;
+        this.stockAmount += stockAmount;
+        this.mutualFundAmount += mutualFundAmount;
+        this.fixedDepositAmount += fixedDepositAmount;
+    }
+
+    public int getKey() {
+        return key;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getInvestmentAmount() {
+        return investmentAmount;
+    }
+
+    public double getStockAmount() {
+        return stockAmount;
+    }
+
+    public double getMutualFundAmount() {
+        return mutualFundAmount;
+    }
+
+    public double getFixedDepositAmount() {
+        return fixedDepositAmount;
+    }
+}
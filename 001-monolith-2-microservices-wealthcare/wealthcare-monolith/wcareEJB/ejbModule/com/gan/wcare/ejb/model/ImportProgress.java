@@ -0,0 +1,82 @@
+package com.gan.wcare.ejb.model;
+
+public class ImportProgress {
+
+    private long rowsRead;
+    private long customersCreated;
+    private long goalsCreated;
+    private long investmentsCreated;
+    private long duplicates;
+    private long invalidRows;
+    private long rejectedInvestments;
+    private long batchesCommitted;
+    private long startTimeInMilliSeconds = System.currentTimeMillis();
+
+    public void addRowRead() {
+        rowsRead++;
+    }
+
+    public void addDuplicate() {
+        duplicates++;
+    }
+
+    public void addInvalidRow() {
+        invalidRows++;
+    }
+
+    //An investmentAmount without goalReference : the investment has no goal to go to
+    public void addRejectedInvestment() {
+        rejectedInvestments++;
+    }
+
+    public void addBatchCommitted(int customers, int goals, int investments) {
+        customersCreated += customers;
+        goalsCreated += goals;
+        investmentsCreated += investments;
+        batchesCommitted++;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getCustomersCreated() {
+        return customersCreated;
+    }
+
+    public long getGoalsCreated() {
+        return goalsCreated;
+    }
+
+    public long getInvestmentsCreated() {
+        return investmentsCreated;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getInvalidRows() {
+        return invalidRows;
+    }
+
+    public long getRejectedInvestments() {
+        return rejectedInvestments;
+    }
+
+    public long getBatchesCommitted() {
+        return batchesCommitted;
+    }
+
+    public long getElapsedTimeInMilliSeconds() {
+        return System.currentTimeMillis() - startTimeInMilliSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return "rows=" + rowsRead + ", customers=" + customersCreated + ", goals=" + goalsCreated
+                + ", investments=" + investmentsCreated + ", duplicates=" + duplicates + ", invalid=" + invalidRows
+                + ", rejectedInvestments=" + rejectedInvestments
+                + ", batches=" + batchesCommitted + ", elapsedMs=" + getElapsedTimeInMilliSeconds();
+    }
+}
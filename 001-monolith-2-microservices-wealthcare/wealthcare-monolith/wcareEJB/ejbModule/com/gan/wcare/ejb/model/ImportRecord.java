@@ -0,0 +1,39 @@
+package com.gan.wcare.ejb.model;
+
+import com.gan.wcare.jpa.entity.WcCustomer;
+import com.gan.wcare.jpa.entity.WcGoal;
+import com.gan.wcare.jpa.entity.WcInvestment;
+import com.gan.wcare.jpa.entity.WcUsers;
+
+//One parsed CSV row. Consecutive rows share the same user/customer/goal instances,
+//entities with id 0 are not yet persisted.
+public class ImportRecord {
+
+    private WcUsers wcUsers;
+    private WcCustomer wcCustomer;
+    private WcGoal wcGoal;
+    private WcInvestment wcInvestment;
+
+    public ImportRecord(WcUsers wcUsers, WcCustomer wcCustomer, WcGoal wcGoal, WcInvestment wcInvestment) {
+        this.wcUsers = wcUsers;
+        this.wcCustomer = wcCustomer;
+        this.wcGoal = wcGoal;
+        this.wcInvestment = wcInvestment;
+    }
+
+    public WcUsers getWcUsers() {
+        return wcUsers;
+    }
+
+    public WcCustomer getWcCustomer() {
+        return wcCustomer;
+    }
+
+    public WcGoal getWcGoal() {
+        return wcGoal;
+    }
+
+    public WcInvestment getWcInvestment() {
+        return wcInvestment;
+    }
+}
@@ -0,0 +1,176 @@
+package com.gan.wcare.ejb.user;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.ejb.EJB;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+
+import com.gan.wcare.common.CommonConstants;
+import com.gan.wcare.common.CsvUtil;
+import com.gan.wcare.common.DateUtil;
+import com.gan.wcare.common.LogUtil;
+import com.gan.wcare.common.NumberUtil;
+import com.gan.wcare.ejb.model.ImportProgress;
+import com.gan.wcare.ejb.model.ImportRecord;
+import com.gan.wcare.jpa.dao.BulkImportDao;
+import com.gan.wcare.jpa.dao.WcUsersDao;
+import com.gan.wcare.jpa.entity.WcCustomer;
+import com.gan.wcare.jpa.entity.WcGoal;
+import com.gan.wcare.jpa.entity.WcInvestment;
+import com.gan.wcare.jpa.entity.WcUsers;
+
+/**
+ * Streams a customer CSV into the database in batched transactions.
+ *
+ * Header (column order is free) :
+ * emailId,firstName,lastName,gender,age,avgIncome,married,city,phone,country,zipCode,wcWealthManagerId,
+ * goalReference,goalDesc,targetDate,targetAmount,investmentAmount
+ *
+ * Consecutive rows with the same emailId belong to the same customer and consecutive rows with
+ * the same goalReference to the same goal, so only the current customer / goal and one batch are
+ * held in memory. Dates are dd-MM-yyyy like in the WM screens.
+ * A row with an investmentAmount but no goalReference keeps its customer, its investment is rejected and counted.
+ */
+@Stateless
+public class BulkImportEJB {
+
+    private static final int BATCH_SIZE = 500;
+
+    WcUsersDao wcUsersDao = new WcUsersDao();
+    BulkImportDao bulkImportDao = new BulkImportDao();
+
+    @EJB
+    private FinancialPlannerEJB financialPlannerService;
+
+    //Each batch commits on its own, a container transaction around the whole file would time out
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public ImportProgress importCsv(Reader reader) throws IOException {
+        ImportProgress progress = new ImportProgress();
+
+        Set<String> knownEmailIds = wcUsersDao.findAllEmailIds();
+        LogUtil.log("BulkImportEJB : importCsv : existing email ids : " + knownEmailIds.size());
+
+        BufferedReader in = new BufferedReader(reader);
+        String header = in.readLine();
+        if (header == null) {
+            return progress;
+        }
+        Map<String, Integer> columns = CsvUtil.headerIndex(header);
+
+        List<ImportRecord> batch = new ArrayList<>(BATCH_SIZE);
+        String currentEmailId = null;
+        WcUsers currentUser = null;
+        WcCustomer currentCustomer = null;
+        String currentGoalReference = null;
+        WcGoal currentGoal = null;
+
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            progress.addRowRead();
+            List<String> values = CsvUtil.parseLine(line);
+
+            String emailId = CsvUtil.value(values, columns, "emailId");
+            String emailKey = emailId.toLowerCase();
+            if (emailKey.isEmpty()) {
+                progress.addInvalidRow();
+                continue;
+            }
+
+            if (!emailKey.equals(currentEmailId)) {
+                if (knownEmailIds.contains(emailKey)) {
+                    progress.addDuplicate();
+                    currentEmailId = null;
+                    continue;
+                }
+                knownEmailIds.add(emailKey);
+
+                currentEmailId = emailKey;
+                currentUser = new WcUsers(emailId, "wc", emailId, CommonConstants.ROLE_CUSTOMER);
+                currentCustomer = createCustomer(values, columns, emailId);
+                currentGoalReference = null;
+                currentGoal = null;
+            }
+
+            WcGoal wcGoal = null;
+            WcInvestment wcInvestment = null;
+            String goalReference = CsvUtil.value(values, columns, "goalReference");
+            if (!goalReference.isEmpty()) {
+                if (!goalReference.equals(currentGoalReference)) {
+                    currentGoalReference = goalReference;
+                    currentGoal = createGoal(values, columns, goalReference);
+                }
+                wcGoal = currentGoal;
+
+                double investmentAmount = NumberUtil.stringToDouble(CsvUtil.value(values, columns, "investmentAmount"));
+                if (investmentAmount > 0) {
+                    wcInvestment = new WcInvestment();
+                    wcInvestment.setInvestmentDate(new Date());
+                    wcInvestment.setInvestmentAmount(investmentAmount);
+                    financialPlannerService.populateFP(wcInvestment, investmentAmount);
+                }
+            } else if (NumberUtil.stringToDouble(CsvUtil.value(values, columns, "investmentAmount")) > 0) {
+                progress.addRejectedInvestment();
+            }
+
+            batch.add(new ImportRecord(currentUser, currentCustomer, wcGoal, wcInvestment));
+            if (batch.size() >= BATCH_SIZE) {
+                saveBatch(batch, progress);
+            }
+        }
+        saveBatch(batch, progress);
+
+        LogUtil.log("BulkImportEJB : importCsv : completed : " + progress);
+        return progress;
+    }
+
+    private void saveBatch(List<ImportRecord> batch, ImportProgress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        bulkImportDao.saveBatch(batch, progress);
+        batch.clear();
+        LogUtil.log("BulkImportEJB : importCsv : progress : " + progress);
+    }
+
+    private WcCustomer createCustomer(List<String> values, Map<String, Integer> columns, String emailId) {
+        WcCustomer wcCustomer = new WcCustomer();
+        wcCustomer.setEmailId(emailId);
+        wcCustomer.setFirstName(CsvUtil.value(values, columns, "firstName"));
+        wcCustomer.setLastName(CsvUtil.value(values, columns, "lastName"));
+        wcCustomer.setGender(CsvUtil.value(values, columns, "gender"));
+        wcCustomer.setAge(NumberUtil.stringToInt(CsvUtil.value(values, columns, "age")));
+        wcCustomer.setAvgIncome(NumberUtil.stringToDouble(CsvUtil.value(values, columns, "avgIncome")));
+        wcCustomer.setMarried(Boolean.parseBoolean(CsvUtil.value(values, columns, "married")));
+        wcCustomer.setCity(CsvUtil.value(values, columns, "city"));
+        wcCustomer.setPhone(CsvUtil.value(values, columns, "phone"));
+        wcCustomer.setCountry(CsvUtil.value(values, columns, "country"));
+        wcCustomer.setZipCode(CsvUtil.value(values, columns, "zipCode"));
+        wcCustomer.setWcWealthManagerId(NumberUtil.stringToInt(CsvUtil.value(values, columns, "wcWealthManagerId")));
+        wcCustomer.setStartDate(new Date());
+        return wcCustomer;
+    }
+
+    private WcGoal createGoal(List<String> values, Map<String, Integer> columns, String goalReference) {
+        String targetDate = CsvUtil.value(values, columns, "targetDate");
+
+        WcGoal wcGoal = new WcGoal();
+        wcGoal.setGoalReference(goalReference);
+        wcGoal.setGoalDesc(CsvUtil.value(values, columns, "goalDesc"));
+        wcGoal.setStartDate(new Date());
+        wcGoal.setTargetDate(targetDate.isEmpty() ? DateUtil.addYearToToday(5) : DateUtil.getDateDefaultToNYear(targetDate, 5));
+        wcGoal.setTargetAmount(NumberUtil.stringToDouble(CsvUtil.value(values, columns, "targetAmount")));
+        return wcGoal;
+    }
+}
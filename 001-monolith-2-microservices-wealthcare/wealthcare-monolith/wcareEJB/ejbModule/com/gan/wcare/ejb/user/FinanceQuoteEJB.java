@@ -9,15 +9,13 @@ import com.gan.wcare.common.DateUtil;
 import com.gan.wcare.common.LogUtil;
 import com.gan.wcare.common.NumberUtil;
 import com.gan.wcare.common.StringUtil;
+import com.gan.wcare.ejb.cache.MappedQuoteStore;
 import com.gan.wcare.ejb.model.CustomError;
 import com.gan.wcare.ejb.model.InvestmentInfo;
-import com.gan.wcare.ejb.model.QuoteCacheInfo;
 import com.gan.wcare.jpa.dao.WcUsersDao;
 import com.gan.wcare.jpa.entity.WcInvestment;
 import com.gan.wcare.jpa.entity.WcUsers;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Random;
 
 @Stateless
@@ -29,39 +27,25 @@ public class FinanceQuoteEJB {
 
     private int mutualQuoteRefreshRateInSeconds = 45;
 
-    Map<Integer, QuoteCacheInfo> stockQuoteCache = new HashMap();
-    Map<Integer, QuoteCacheInfo> mutualQuoteCache = new HashMap();
+    //Shared by all pooled instances and kept across restarts, see MappedQuoteStore
+    private final MappedQuoteStore stockQuoteCache = MappedQuoteStore.stockQuotes();
+    private final MappedQuoteStore mutualQuoteCache = MappedQuoteStore.mutualQuotes();
 
-    public double processAndReturnRandomQuote(int investmentId, double amount, long diffDays, int increaseDescreaseFactor, int quoteRefreshRateInSeconds, Map<Integer, QuoteCacheInfo> quoteCache) {
+    public double processAndReturnRandomQuote(int investmentId, double amount, long diffDays, int increaseDescreaseFactor, int quoteRefreshRateInSeconds, MappedQuoteStore quoteCache) {
         LogUtil.logDebug("FinanceQuoteService : processAndReturnRandomQuote : started");
 
-        QuoteCacheInfo quoteCacheInfo = quoteCache.get(investmentId);
-        if (quoteCacheInfo == null) {
-            LogUtil.logDebug("FinanceQuoteService : processAndReturnRandomQuote 1: ");
-
-            quoteCacheInfo = new QuoteCacheInfo();
-            quoteCacheInfo.setCreatedTimeInMilliSeconds(-10000);
-            quoteCache.put(investmentId, quoteCacheInfo);
-            LogUtil.logDebug("FinanceQuoteService : processAndReturnRandomQuote 2: ");
-
+        //Unsaved or synthetic investments (warm up) are not cached, their quotes would hold slots of the persistent store for ever
+        if (investmentId <= 0) {
+            return randomIncreaseOrDecrease(amount, diffDays, increaseDescreaseFactor);
         }
-        LogUtil.logDebug("FinanceQuoteService : processAndReturnRandomQuote 3: ");
 
-        double resultAmount = 0;
         long currentTimeInMilliSeconds = System.currentTimeMillis();
-        boolean timeLimitExceeded = DateUtil.isLimitExceeded(currentTimeInMilliSeconds, quoteCacheInfo.getCreatedTimeInMilliSeconds(), quoteRefreshRateInSeconds);
-        LogUtil.logDebug("FinanceQuoteService : processAndReturnRandomQuote 4: ");
+        double resultAmount = quoteCache.getIfFresh(investmentId, currentTimeInMilliSeconds, quoteRefreshRateInSeconds * 1000L);
 
-        if (timeLimitExceeded) {
+        if (Double.isNaN(resultAmount)) {
             resultAmount = randomIncreaseOrDecrease(amount, diffDays, increaseDescreaseFactor);
-            quoteCacheInfo.setCreatedTimeInMilliSeconds(currentTimeInMilliSeconds);
-            quoteCacheInfo.setQuoteValue(resultAmount);
-            LogUtil.logDebug("FinanceQuoteService : processAndReturnRandomQuote 5: ");
-
-        } else {
-            resultAmount = quoteCacheInfo.getQuoteValue();
-            LogUtil.logDebug("FinanceQuoteService : processAndReturnRandomQuote 6: ");
-
+            quoteCache.put(investmentId, currentTimeInMilliSeconds, resultAmount);
+            LogUtil.logDebug("FinanceQuoteService : processAndReturnRandomQuote : new quote");
         }
         LogUtil.logDebug("FinanceQuoteService : processAndReturnRandomQuote resultAmount: " + resultAmount);
 
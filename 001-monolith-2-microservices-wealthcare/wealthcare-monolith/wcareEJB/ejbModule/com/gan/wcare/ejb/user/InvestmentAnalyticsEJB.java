@@ -0,0 +1,188 @@
+package com.gan.wcare.ejb.user;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+
+import com.gan.wcare.common.LogUtil;
+import com.gan.wcare.ejb.analytics.InvestmentColumnStore;
+import com.gan.wcare.ejb.model.AnalyticsFilter;
+import com.gan.wcare.ejb.model.AnalyticsGroupTotal;
+import com.gan.wcare.jpa.dao.InvestmentSnapshotDao;
+import com.gan.wcare.jpa.entity.WcInvestment;
+
+/**
+ * In memory columnar snapshot of all investments for BM wide reports.
+ * New rows are appended by an incremental refresh (ids greater than the last loaded id),
+ * updates and deletes are pushed by WcInvestmentEJB / WcGoalEJB.
+ * A refresh reads its pages without the lock, so reports are not blocked by the database; changes
+ * pushed meanwhile are replayed on the rows it appends. It compacts the deleted rows once they are
+ * more than a quarter of the store.
+ */
+@Singleton
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class InvestmentAnalyticsEJB {
+
+    private static final int REFRESH_PAGE_SIZE = 5000;
+
+    InvestmentSnapshotDao investmentSnapshotDao = new InvestmentSnapshotDao();
+
+    private final InvestmentColumnStore store = new InvestmentColumnStore();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile boolean loaded = false;
+
+    //Changes pushed while a refresh is running, guarded by lock
+    private List<Consumer<InvestmentColumnStore>> changesDuringRefresh;
+
+    public List<AnalyticsGroupTotal> aggregate(AnalyticsFilter filter, InvestmentColumnStore.GroupBy groupBy) {
+        if (!loaded) {
+            refresh();
+        }
+        lock.readLock().lock();
+        try {
+            return store.aggregate(filter, groupBy);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Schedule(second = "*/30", minute = "*", hour = "*", persistent = false)
+    public void scheduledRefresh() {
+        if (loaded) {
+            refresh();
+        }
+    }
+
+    public int refresh() {
+        long start = System.currentTimeMillis();
+        int appended = 0;
+        Calendar calendar = Calendar.getInstance();
+
+        int compacted = 0;
+        int total;
+
+        //One refresh at a time, the only writer of store.lastId()
+        refreshLock.lock();
+        try {
+            recordChanges(true);
+            try {
+                List<Object[]> rows = investmentSnapshotDao.findRowsAfter(store.lastId(), REFRESH_PAGE_SIZE);
+                while (!rows.isEmpty()) {
+                    appendRows(rows, calendar);
+                    appended += rows.size();
+                    rows = investmentSnapshotDao.findRowsAfter(store.lastId(), REFRESH_PAGE_SIZE);
+                }
+            } finally {
+                recordChanges(false);
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (store.deletedRows() > store.size() / 4) {
+                    compacted = store.compact();
+                }
+                total = store.size();
+                loaded = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+
+        if (appended > 0 || compacted > 0) {
+            LogUtil.log("InvestmentAnalyticsEJB : refresh : appended " + appended + " rows, compacted " + compacted
+                    + " deleted rows, total " + total + " rows in " + (System.currentTimeMillis() - start) + " ms");
+        }
+        return appended;
+    }
+
+    //Rows read outside the lock, then the changes pushed since are applied again over them
+    private void appendRows(List<Object[]> rows, Calendar calendar) {
+        lock.writeLock().lock();
+        try {
+            for (Object[] row : rows) {
+                store.append(toInt(row[0]), toInt(row[1]), toInt(row[2]), toInt(row[3]), vintageYear((Date) row[4], calendar),
+                        toDouble(row[5]), toDouble(row[6]), toDouble(row[7]), toDouble(row[8]));
+            }
+            for (Consumer<InvestmentColumnStore> change : changesDuringRefresh) {
+                change.accept(store);
+            }
+            changesDuringRefresh.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void recordChanges(boolean record) {
+        lock.writeLock().lock();
+        try {
+            changesDuringRefresh = record ? new ArrayList<Consumer<InvestmentColumnStore>>() : null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //Applied now, and again after the page being read when a refresh is running
+    private void apply(Consumer<InvestmentColumnStore> change) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded && changesDuringRefresh == null) {
+                return;
+            }
+            change.accept(store);
+            if (changesDuringRefresh != null) {
+                changesDuringRefresh.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void onUpdated(WcInvestment wcInvestment) {
+        final int id = wcInvestment.getId();
+        final int vintageYear = vintageYear(wcInvestment.getInvestmentDate(), Calendar.getInstance());
+        final double investmentAmount = wcInvestment.getInvestmentAmount();
+        final double stockAmount = wcInvestment.getStockAmount();
+        final double mutualFundAmount = wcInvestment.getMutualFundAmount();
+        final double fixedDepositAmount = wcInvestment.getFixedDepositAmount();
+        apply(columns -> columns.update(id, vintageYear, investmentAmount, stockAmount, mutualFundAmount, fixedDepositAmount));
+    }
+
+    public void onDeleted(final int investmentId) {
+        apply(columns -> columns.remove(investmentId));
+    }
+
+    public void onGoalDeleted(final int goalId) {
+        apply(columns -> columns.removeByGoalId(goalId));
+    }
+
+    private int vintageYear(Date date, Calendar calendar) {
+        if (date == null) {
+            return 0;
+        }
+        calendar.setTime(date);
+        return calendar.get(Calendar.YEAR);
+    }
+
+    private int toInt(Object value) {
+        return value == null ? 0 : ((Number) value).intValue();
+    }
+
+    private double toDouble(Object value) {
+        return value == null ? 0 : ((Number) value).doubleValue();
+    }
+}
@@ -0,0 +1,151 @@
+package com.gan.wcare.ejb.user;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+import javax.ejb.EJB;
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+
+import com.gan.wcare.common.CsvUtil;
+import com.gan.wcare.common.JsonUtil;
+import com.gan.wcare.common.LogUtil;
+import com.gan.wcare.ejb.model.InvestmentInfo;
+import com.gan.wcare.jpa.dao.PortfolioExportDao;
+import com.gan.wcare.jpa.entity.WcInvestment;
+
+/**
+ * Full book export for business managers : one line per (customer, goal, investment) with the
+ * current quote. Customers are read in keyset pages and every page is flushed to the writer
+ * before the next one is fetched, so memory does not grow with the size of the book.
+ */
+@Stateless
+public class PortfolioExportEJB {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_JSON_LINES = "jsonl";
+
+    private static final int CUSTOMERS_PER_PAGE = 200;
+
+    private static final String[] COLUMNS = {"customerId", "firstName", "lastName", "emailId", "wcWealthManagerId",
+            "goalId", "goalReference", "targetDate", "targetAmount",
+            "investmentId", "investmentDate", "investmentAmount", "stockAmount", "mutualFundAmount", "fixedDepositAmount",
+            "currentStockAmount", "currentMutualFundAmount", "currentFixedDepositAmount", "currentTotal"};
+
+    PortfolioExportDao portfolioExportDao = new PortfolioExportDao();
+
+    @EJB
+    private FinanceQuoteEJB financeQuoteEJB;
+
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public long export(Writer out, String format) throws IOException {
+        boolean jsonLines = FORMAT_JSON_LINES.equalsIgnoreCase(format);
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+
+        if (!jsonLines) {
+            out.write(String.join(",", COLUMNS));
+            out.write('\n');
+        }
+
+        long rowCount = 0;
+        int lastCustomerId = 0;
+        List<Object[]> rows = portfolioExportDao.findPortfolioRows(lastCustomerId, CUSTOMERS_PER_PAGE);
+        while (!rows.isEmpty()) {
+            for (Object[] row : rows) {
+                Object[] values = toValues(row, dateFormat);
+                if (jsonLines) {
+                    writeJsonLine(out, values);
+                } else {
+                    writeCsvLine(out, values);
+                }
+                rowCount++;
+            }
+            out.flush();
+
+            lastCustomerId = ((Number) rows.get(rows.size() - 1)[0]).intValue();
+            rows = portfolioExportDao.findPortfolioRows(lastCustomerId, CUSTOMERS_PER_PAGE);
+        }
+
+        LogUtil.log("PortfolioExportEJB : export completed : " + rowCount + " rows");
+        return rowCount;
+    }
+
+    private Object[] toValues(Object[] row, SimpleDateFormat dateFormat) {
+        Object[] values = new Object[COLUMNS.length];
+        for (int i = 0; i < 9; i++) {
+            values[i] = row[i];
+        }
+        values[7] = formatDate(row[7], dateFormat);
+
+        if (row[9] != null) {
+            WcInvestment wcInvestment = new WcInvestment();
+            wcInvestment.setId(((Number) row[9]).intValue());
+            wcInvestment.setWcGoalId(((Number) row[5]).intValue());
+            wcInvestment.setInvestmentDate((Date) row[10]);
+            wcInvestment.setInvestmentAmount(toDouble(row[11]));
+            wcInvestment.setStockAmount(toDouble(row[12]));
+            wcInvestment.setMutualFundAmount(toDouble(row[13]));
+            wcInvestment.setFixedDepositAmount(toDouble(row[14]));
+
+            InvestmentInfo investmentInfo = new InvestmentInfo();
+            financeQuoteEJB.populateCurrentQuote(wcInvestment, investmentInfo);
+
+            values[9] = wcInvestment.getId();
+            values[10] = formatDate(row[10], dateFormat);
+            values[11] = wcInvestment.getInvestmentAmount();
+            values[12] = wcInvestment.getStockAmount();
+            values[13] = wcInvestment.getMutualFundAmount();
+            values[14] = wcInvestment.getFixedDepositAmount();
+            values[15] = investmentInfo.getCurrentValueStockAmount();
+            values[16] = investmentInfo.getCurrentValueMutualFundAmount();
+            values[17] = investmentInfo.getCurrentValueFixedDepositAmount();
+            values[18] = investmentInfo.getCurrentValueTotal();
+        }
+        return values;
+    }
+
+    private void writeCsvLine(Writer out, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (values[i] != null) {
+                out.write(CsvUtil.escape(String.valueOf(values[i])));
+            }
+        }
+        out.write('\n');
+    }
+
+    private void writeJsonLine(Writer out, Object[] values) throws IOException {
+        out.write('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(JsonUtil.quote(COLUMNS[i]));
+            out.write(':');
+            Object value = values[i];
+            if (value == null || value instanceof Number) {
+                out.write(String.valueOf(value));
+            } else {
+                out.write(JsonUtil.quote(String.valueOf(value)));
+            }
+        }
+        out.write("}\n");
+    }
+
+    private String formatDate(Object value, SimpleDateFormat dateFormat) {
+        if (value instanceof Date) {
+            return dateFormat.format((Date) value);
+        }
+        return value == null ? null : String.valueOf(value);
+    }
+
+    private double toDouble(Object value) {
+        return value == null ? 0 : ((Number) value).doubleValue();
+    }
+}
@@ -0,0 +1,204 @@
+package com.gan.wcare.ejb.user;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.Timeout;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+
+import com.gan.wcare.common.LogUtil;
+import com.gan.wcare.ejb.cache.MappedQuoteStore;
+import com.gan.wcare.ejb.metrics.MetricsRegistry;
+import com.gan.wcare.ejb.model.InvestmentInfo;
+import com.gan.wcare.jpa.dao.DaoBase;
+import com.gan.wcare.jpa.dao.InvestmentSnapshotDao;
+import com.gan.wcare.jpa.entity.WcGoal;
+import com.gan.wcare.jpa.entity.WcInvestment;
+
+/**
+ * Warms the application up after a deployment, before the node reports itself ready
+ * (/health/ready in wcareWeb) : persistence unit, reference data, quote cache, BM snapshot
+ * and the goal / quote code paths (JIT). Runs in a timer so that the deployment is not blocked.
+ * A failed warm up leaves the node not ready, with the cause in its status, and is retried with an
+ * exponential backoff (5 s doubling up to 5 min) until it succeeds.
+ */
+@Singleton
+@Startup
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class WarmUpEJB {
+
+    private static final int QUOTE_PRIME_LIMIT = 20000;
+    private static final int QUOTE_PRIME_PAGE_SIZE = 5000;
+    private static final int GOAL_INFO_ITERATIONS = 2000;
+    private static final int SYNTHETIC_INVESTMENTS = 10;
+    private static final long RETRY_INITIAL_DELAY_IN_MILLISECONDS = 5000;
+    private static final long RETRY_MAX_DELAY_IN_MILLISECONDS = 300000;
+
+    InvestmentSnapshotDao investmentSnapshotDao = new InvestmentSnapshotDao();
+
+    @Resource
+    private TimerService timerService;
+
+    @EJB
+    private WcWealthManagerEJB wcWealthManagerEJB;
+    @EJB
+    private WcBusinessManagerEJB wcBusinessManagerEJB;
+    @EJB
+    private FinanceQuoteEJB financeQuoteEJB;
+    @EJB
+    private WcGoalEJB wcGoalEJB;
+    @EJB
+    private InvestmentAnalyticsEJB investmentAnalyticsEJB;
+
+    private volatile boolean ready = false;
+    private volatile String status = "STARTING";
+    private int failedAttempts = 0;
+
+    @PostConstruct
+    public void init() {
+        schedule(0);
+    }
+
+    @Timeout
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        try {
+            step("persistence unit");
+            DaoBase.entityManagerFactory();
+
+            step("reference data");
+            wcWealthManagerEJB.findAll();
+            wcBusinessManagerEJB.findAll();
+
+            step("quote cache");
+            int quotes = primeQuotes();
+
+            step("investment snapshot");
+            investmentAnalyticsEJB.refresh();
+
+            step("goal info");
+            exerciseGoalInfo();
+
+            //Warm up calls should not show in the latency percentiles
+            MetricsRegistry.reset();
+
+            status = "UP";
+            ready = true;
+            LogUtil.log("WarmUpEJB : ready in " + (System.currentTimeMillis() - start) + " ms, " + quotes + " quotes primed");
+        } catch (Throwable e) {
+            //Errors too (NoClassDefFoundError, OutOfMemoryError...) : the node stays out of rotation and tries again
+            failedAttempts++;
+            long delay = retryDelay();
+            status = "WARMING_UP (attempt " + failedAttempts + " failed : " + e + ", retry in " + (delay / 1000) + " s)";
+            LogUtil.log("WarmUpEJB : warm up attempt " + failedAttempts + " failed after "
+                    + (System.currentTimeMillis() - start) + " ms, retry in " + delay + " ms : " + e);
+            e.printStackTrace();
+            schedule(delay);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        MappedQuoteStore.stockQuotes().flush();
+        MappedQuoteStore.mutualQuotes().flush();
+        DaoBase.closeEntityManagerFactory();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    private void schedule(long delay) {
+        timerService.createSingleActionTimer(delay, new TimerConfig("warmUp", false));
+    }
+
+    //5 s, 10 s, 20 s... up to 5 min
+    private long retryDelay() {
+        long delay = RETRY_INITIAL_DELAY_IN_MILLISECONDS << Math.min(failedAttempts - 1, 16);
+        return Math.min(delay, RETRY_MAX_DELAY_IN_MILLISECONDS);
+    }
+
+    private void step(String name) {
+        status = "WARMING_UP (" + name + ")";
+        LogUtil.log("WarmUpEJB : " + name);
+    }
+
+    //Bounded : the first pages are enough to warm the quote code path and page in the cache files
+    private int primeQuotes() {
+        int primed = 0;
+        int lastId = 0;
+        List<Object[]> rows = investmentSnapshotDao.findRowsAfter(lastId, QUOTE_PRIME_PAGE_SIZE);
+        while (!rows.isEmpty() && primed < QUOTE_PRIME_LIMIT) {
+            for (Object[] row : rows) {
+                WcInvestment wcInvestment = new WcInvestment();
+                wcInvestment.setId(((Number) row[0]).intValue());
+                wcInvestment.setInvestmentDate((Date) row[4]);
+                wcInvestment.setInvestmentAmount(toDouble(row[5]));
+                wcInvestment.setStockAmount(toDouble(row[6]));
+                wcInvestment.setMutualFundAmount(toDouble(row[7]));
+                wcInvestment.setFixedDepositAmount(toDouble(row[8]));
+                financeQuoteEJB.populateCurrentQuote(wcInvestment, new InvestmentInfo());
+                lastId = wcInvestment.getId();
+                primed++;
+            }
+            rows = investmentSnapshotDao.findRowsAfter(lastId, QUOTE_PRIME_PAGE_SIZE);
+        }
+        return primed;
+    }
+
+    //Synthetic goal, negative investment ids so that no real quote is touched (FinanceQuoteEJB does not cache them)
+    private void exerciseGoalInfo() {
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.YEAR, -3);
+        Date startDate = calendar.getTime();
+        calendar.add(Calendar.YEAR, 10);
+        Date targetDate = calendar.getTime();
+
+        WcGoal wcGoal = new WcGoal();
+        wcGoal.setId(-1);
+        wcGoal.setGoalReference("WARMUP");
+        wcGoal.setGoalDesc("Warm up");
+        wcGoal.setStartDate(startDate);
+        wcGoal.setTargetDate(targetDate);
+        wcGoal.setTargetAmount(1000000);
+
+        List<WcInvestment> investments = new ArrayList<>();
+        for (int i = 1; i <= SYNTHETIC_INVESTMENTS; i++) {
+            WcInvestment wcInvestment = new WcInvestment();
+            wcInvestment.setId(-i);
+            wcInvestment.setWcGoalId(-1);
+            wcInvestment.setInvestmentDate(startDate);
+            wcInvestment.setInvestmentAmount(10000);
+            wcInvestment.setStockAmount(5000);
+            wcInvestment.setMutualFundAmount(3000);
+            wcInvestment.setFixedDepositAmount(2000);
+            investments.add(wcInvestment);
+        }
+
+        for (int i = 0; i < GOAL_INFO_ITERATIONS; i++) {
+            wcGoalEJB.createGoalInfo(wcGoal, investments, null);
+        }
+    }
+
+    private double toDouble(Object value) {
+        return value == null ? 0 : ((Number) value).doubleValue();
+    }
+}
@@ -43,6 +43,8 @@ public class WcGoalEJB {
     private ImageServiceEJB imageService;
      @EJB
     private FinanceQuoteEJB financeQuoteEJB;
+    @EJB
+    private InvestmentAnalyticsEJB investmentAnalyticsEJB;
     
     public List<WcGoal> findAll() {
         List<WcGoal> list = wealthManagerDao.findAll();
@@ -87,6 +89,7 @@ public class WcGoalEJB {
         if(wcGoal != null){
         	wcInvestmentDao.deleteByGoalId(id);
             wcGoalDao.delete(id);
+            investmentAnalyticsEJB.onGoalDeleted(id);
         }
         return wcGoal;
     }
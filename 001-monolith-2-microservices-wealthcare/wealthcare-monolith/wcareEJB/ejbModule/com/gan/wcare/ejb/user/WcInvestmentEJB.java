@@ -28,6 +28,8 @@ public class WcInvestmentEJB {
  
     @EJB
     private FinancialPlannerEJB financialPlannerService;
+    @EJB
+    private InvestmentAnalyticsEJB investmentAnalyticsEJB;
     
     public List<WcInvestment> findAll() {
         List<WcInvestment> list = wealthManagerDao.findAll();
@@ -53,6 +55,7 @@ public class WcInvestmentEJB {
 
         wcInvestmentDao.save(wcInvestment);
         wcInvestment = find(wcInvestment.getId());
+        investmentAnalyticsEJB.onUpdated(wcInvestment);
         return wcInvestment;
     }
 
@@ -65,6 +68,7 @@ public class WcInvestmentEJB {
 
         LogUtil.log("WcInvestmentService : delete : " + id);
         wcInvestmentDao.delete(id);
+        investmentAnalyticsEJB.onDeleted(id);
         return true;
     }
 
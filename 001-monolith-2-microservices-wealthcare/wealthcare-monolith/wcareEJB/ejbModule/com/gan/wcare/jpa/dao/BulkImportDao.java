@@ -0,0 +1,74 @@
+package com.gan.wcare.jpa.dao;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import com.gan.wcare.common.LogUtil;
+import com.gan.wcare.ejb.metrics.DaoMetrics;
+import com.gan.wcare.ejb.model.ImportProgress;
+import com.gan.wcare.ejb.model.ImportRecord;
+import com.gan.wcare.jpa.entity.WcCustomer;
+import com.gan.wcare.jpa.entity.WcGoal;
+import com.gan.wcare.jpa.entity.WcInvestment;
+import com.gan.wcare.jpa.entity.WcUsers;
+
+public class BulkImportDao extends DaoBase {
+
+    //Persists a whole batch of rows in a single transaction. Parents are inserted before
+    //their children so the generated ids can be copied into the foreign key columns.
+    public void saveBatch(List<ImportRecord> records, ImportProgress progress) {
+        DaoMetrics metrics = metrics("saveBatch");
+        EntityManager em = createEntityManager(metrics);
+        long start = System.nanoTime();
+        try {
+            em.getTransaction().begin();
+
+            int customers = 0;
+            int goals = 0;
+            int investments = 0;
+            for (ImportRecord record : records) {
+                WcUsers wcUsers = record.getWcUsers();
+                WcCustomer wcCustomer = record.getWcCustomer();
+                if (wcUsers.getId() == 0) {
+                    em.persist(wcUsers);
+                    em.flush();
+                }
+                if (wcCustomer.getId() == 0) {
+                    wcCustomer.setWcUserId(wcUsers.getId());
+                    em.persist(wcCustomer);
+                    em.flush();
+                    customers++;
+                }
+
+                WcGoal wcGoal = record.getWcGoal();
+                if (wcGoal != null && wcGoal.getId() == 0) {
+                    wcGoal.setWcCustomerId(wcCustomer.getId());
+                    wcGoal.setWcWealthManagerId(wcCustomer.getWcWealthManagerId());
+                    em.persist(wcGoal);
+                    em.flush();
+                    goals++;
+                }
+
+                WcInvestment wcInvestment = record.getWcInvestment();
+                if (wcGoal != null && wcInvestment != null) {
+                    wcInvestment.setWcGoalId(wcGoal.getId());
+                    em.persist(wcInvestment);
+                    investments++;
+                }
+            }
+
+            em.getTransaction().commit();
+            em.clear();
+
+            progress.addBatchCommitted(customers, goals, investments);
+        } finally {
+            if (em.getTransaction().isActive()) {
+                LogUtil.log("BulkImportDao : saveBatch rolled back : " + records.size() + " rows");
+                em.getTransaction().rollback();
+            }
+            metrics.recordQuery(System.nanoTime() - start, records.size());
+            em.close();
+        }
+    }
+}
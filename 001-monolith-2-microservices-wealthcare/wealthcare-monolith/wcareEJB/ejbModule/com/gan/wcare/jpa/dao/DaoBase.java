@@ -8,24 +8,64 @@ import javax.persistence.Persistence;
 import javax.persistence.Query;
 
 import com.gan.wcare.common.LogUtil;
+import com.gan.wcare.ejb.metrics.DaoMetrics;
+import com.gan.wcare.ejb.metrics.MetricsRegistry;
 import com.gan.wcare.jpa.entity.WcUsers;
 
 public class DaoBase {
-	
+
+	//Bootstrapping the persistence unit is expensive, it is done once and shared by all DAOs
+	private static volatile EntityManagerFactory emf;
+
+	public static EntityManagerFactory entityManagerFactory() {
+		EntityManagerFactory result = emf;
+		if (result == null) {
+			synchronized (DaoBase.class) {
+				result = emf;
+				if (result == null) {
+					long start = System.currentTimeMillis();
+					result = Persistence.createEntityManagerFactory("wcareEJB");
+					emf = result;
+					LogUtil.log("DaoBase : persistence unit wcareEJB created in " + (System.currentTimeMillis() - start) + " ms");
+				}
+			}
+		}
+		return result;
+	}
+
+	public static synchronized void closeEntityManagerFactory() {
+		if (emf != null) {
+			emf.close();
+			emf = null;
+		}
+	}
+
 	public EntityManager createEntityManager() {
-		EntityManagerFactory emf = Persistence.createEntityManagerFactory("wcareEJB");
-		EntityManager em = emf.createEntityManager();
+		EntityManager em = entityManagerFactory().createEntityManager();
 		return em;
  	}
+
+	protected DaoMetrics metrics(String operation) {
+		return MetricsRegistry.daoOperation(getClass().getSimpleName(), operation);
+	}
+
+	protected EntityManager createEntityManager(DaoMetrics metrics) {
+		long start = System.nanoTime();
+		EntityManager em = createEntityManager();
+		metrics.recordEntityManager(System.nanoTime() - start);
+		return em;
+	}
 	
 	public List findAll(String sql) {
-		
-		EntityManager em = createEntityManager();
+		DaoMetrics metrics = metrics("findAll");
+		EntityManager em = createEntityManager(metrics);
 
         // read the existing entries and write to console
+        long start = System.nanoTime();
         Query q = em.createQuery(sql);
 
         List list = q.getResultList();
+        metrics.recordQuery(System.nanoTime() - start, list.size());
         for (Object object : list) {
             System.out.println(object);
         }
@@ -37,12 +77,15 @@ public class DaoBase {
     }
 		
 	public Object findOne(String sql) {
-		EntityManager em = createEntityManager();
+		DaoMetrics metrics = metrics("findOne");
+		EntityManager em = createEntityManager(metrics);
 
         // read the existing entries and write to console
+        long start = System.nanoTime();
         Query q = em.createQuery(sql);
 
         Object result = q.getSingleResult();
+        metrics.recordQuery(System.nanoTime() - start, 1);
         LogUtil.log("find One : " + result);
         
         em.close();
@@ -50,15 +93,18 @@ public class DaoBase {
     }
 	
 	public Object findOne(String sql, String key1, Object value1) {
-		EntityManager em = createEntityManager();
+		DaoMetrics metrics = metrics("findOne");
+		EntityManager em = createEntityManager(metrics);
 
         LogUtil.log("find One 1: " + key1 + " -> "  + value1 );
 
         // read the existing entries and write to console
+        long start = System.nanoTime();
         Query q = em.createQuery(sql);
         q.setParameter(key1, value1);
         
         List list= q.getResultList();
+        metrics.recordQuery(System.nanoTime() - start, list.size());
         LogUtil.log("find One 2: " + list +  " : "  + list);
 
         
@@ -74,15 +120,18 @@ public class DaoBase {
     }
 	
 	public List findAll(String sql, String key1, Object value1) {
-		EntityManager em = createEntityManager();
+		DaoMetrics metrics = metrics("findAll");
+		EntityManager em = createEntityManager(metrics);
 
         LogUtil.log("findAll 1: " + key1 + " -> "  + value1 );
 
         // read the existing entries and write to console
+        long start = System.nanoTime();
         Query q = em.createQuery(sql);
         q.setParameter(key1, value1);
         
         List list= q.getResultList();
+        metrics.recordQuery(System.nanoTime() - start, list.size());
         LogUtil.log("findAll 2: " + list +  " : "  + list);
         
         em.close();
@@ -91,8 +140,11 @@ public class DaoBase {
 
 
 	protected Object findById(Class className, int id) {
-		EntityManager em = createEntityManager();
+		DaoMetrics metrics = metrics("findById");
+		EntityManager em = createEntityManager(metrics);
+        long start = System.nanoTime();
         Object result = em.find(className, id);
+        metrics.recordQuery(System.nanoTime() - start, result == null ? 0 : 1);
 
         LogUtil.log("find by Id : " + id + " : " + result);
         em.close();
@@ -100,7 +152,9 @@ public class DaoBase {
     }
 	
 	protected boolean delete(Class className, int id) {
-		EntityManager em = createEntityManager();
+		DaoMetrics metrics = metrics("delete");
+		EntityManager em = createEntityManager(metrics);
+		long start = System.nanoTime();
 		em.getTransaction().begin();
 		Object entity = em.find(className, id);
 
@@ -110,6 +164,7 @@ public class DaoBase {
         	em.getTransaction().commit();
         	result = true;
         }
+        metrics.recordQuery(System.nanoTime() - start, result ? 1 : 0);
         
         LogUtil.log("delete : " + id + " : " + result);
         
@@ -119,10 +174,13 @@ public class DaoBase {
 	
 	
 	public void save(Object entity) {
-		EntityManager em = createEntityManager();
+		DaoMetrics metrics = metrics("save");
+		EntityManager em = createEntityManager(metrics);
+		long start = System.nanoTime();
 		em.getTransaction().begin();
 		em.persist(entity);
 		em.getTransaction().commit();
+		metrics.recordQuery(System.nanoTime() - start, 1);
 		em.close();
     }
 
@@ -0,0 +1,33 @@
+package com.gan.wcare.jpa.dao;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import com.gan.wcare.ejb.metrics.DaoMetrics;
+
+public class InvestmentSnapshotDao extends DaoBase {
+
+    public static String findRowsAfterSql = "SELECT i.id, i.WcGoalId, g.WcCustomerId, g.WcWealthManagerId, i.InvestmentDate,"
+            + " i.InvestmentAmount, i.StockAmount, i.MutualFundAmount, i.FixedDepositAmount"
+            + " FROM WcInvestment i LEFT OUTER JOIN WcGoal g ON g.id = i.WcGoalId"
+            + " WHERE i.id > ?1 ORDER BY i.id";
+
+    //Scalar rows only, no entity is hydrated
+    public List<Object[]> findRowsAfter(int lastId, int limit) {
+        DaoMetrics metrics = metrics("findRowsAfter");
+        EntityManager em = createEntityManager(metrics);
+        try {
+            long start = System.nanoTime();
+            Query q = em.createNativeQuery(findRowsAfterSql);
+            q.setParameter(1, lastId);
+            q.setMaxResults(limit);
+            List<Object[]> rows = q.getResultList();
+            metrics.recordQuery(System.nanoTime() - start, rows.size());
+            return rows;
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.gan.wcare.jpa.dao;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import com.gan.wcare.ejb.metrics.DaoMetrics;
+
+public class PortfolioExportDao extends DaoBase {
+
+    public static String findCustomerIdsSql = "SELECT a.id FROM WcCustomer a WHERE a.id > :lastId ORDER BY a.id";
+
+    //WcCustomer, WcGoal and WcInvestment have no JPA relationships, so the outer joins are native SQL
+    public static String findPortfolioRowsSql = "SELECT c.id, c.FirstName, c.LastName, c.EmailId, c.WcWealthManagerId,"
+            + " g.id, g.GoalReference, g.TargetDate, g.TargetAmount,"
+            + " i.id, i.InvestmentDate, i.InvestmentAmount, i.StockAmount, i.MutualFundAmount, i.FixedDepositAmount"
+            + " FROM WcCustomer c"
+            + " LEFT OUTER JOIN WcGoal g ON g.WcCustomerId = c.id"
+            + " LEFT OUTER JOIN WcInvestment i ON i.WcGoalId = g.id"
+            + " WHERE c.id > ?1 AND c.id <= ?2"
+            + " ORDER BY c.id, g.id, i.id";
+
+    //Keyset page : rows of the next customerCount customers after afterCustomerId, in (customer, goal, investment) order.
+    //Every customer appears at least once, so column 0 of the last row is the key of the next page.
+    public List<Object[]> findPortfolioRows(int afterCustomerId, int customerCount) {
+        DaoMetrics metrics = metrics("findPortfolioRows");
+        EntityManager em = createEntityManager(metrics);
+        try {
+            long start = System.nanoTime();
+            List<Integer> customerIds = em.createQuery(findCustomerIdsSql, Integer.class)
+                    .setParameter("lastId", afterCustomerId)
+                    .setMaxResults(customerCount)
+                    .getResultList();
+            if (customerIds.isEmpty()) {
+                metrics.recordQuery(System.nanoTime() - start, 0);
+                return Collections.emptyList();
+            }
+
+            Query q = em.createNativeQuery(findPortfolioRowsSql);
+            q.setParameter(1, afterCustomerId);
+            q.setParameter(2, customerIds.get(customerIds.size() - 1));
+            List<Object[]> rows = q.getResultList();
+            metrics.recordQuery(System.nanoTime() - start, rows.size());
+            return rows;
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package com.gan.wcare.jpa.dao;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
 
 import com.gan.wcare.common.LogUtil;
+import com.gan.wcare.ejb.metrics.DaoMetrics;
 import com.gan.wcare.jpa.entity.WcUsers;
 
 public class WcUsersDao extends DaoBase{
@@ -10,6 +15,7 @@ public class WcUsersDao extends DaoBase{
 	public static String findAllSql = "select a FROM WcUsers a";
 	public static String findOneByEmailIdSql = "SELECT a FROM WcUsers a WHERE a.emailId = :emailId";
 	public static String findOneByUserNameSql = "SELECT a FROM WcUsers a WHERE a.userName = :userName";
+	public static String findAllEmailIdsSql = "SELECT a.emailId FROM WcUsers a";
 
 	public List<WcUsers> findAll() {
         List<WcUsers> list = findAll(findAllSql);
@@ -36,6 +42,25 @@ public class WcUsersDao extends DaoBase{
         
     }
 
+    //Only the email column is fetched, lower cased for case insensitive duplicate checks
+    public Set<String> findAllEmailIds() {
+        DaoMetrics metrics = metrics("findAllEmailIds");
+        EntityManager em = createEntityManager(metrics);
+        long start = System.nanoTime();
+
+        List<String> list = em.createQuery(findAllEmailIdsSql, String.class).getResultList();
+        Set<String> emailIds = new HashSet<>(list.size() * 2);
+        for (String emailId : list) {
+            if (emailId != null) {
+                emailIds.add(emailId.trim().toLowerCase());
+            }
+        }
+        metrics.recordQuery(System.nanoTime() - start, list.size());
+
+        em.close();
+        return emailIds;
+    }
+
     public WcUsers findById(Integer id) {
         return (WcUsers) findById(WcUsers.class, id);
     }
@@ -47,6 +47,19 @@ List<WcCustomer> list = (List<WcCustomer>) request.getAttribute("mainData");
 		}
 		%>
   </table>
+
+<br>
+<form class="w3-container w3-light-grey w3-padding" action="BmCustomerImport" method="post" enctype="multipart/form-data">
+  <label><b>Import customers (CSV)</b></label>
+  <input class="w3-input" type="file" name="file" accept=".csv">
+  <button class="w3-button w3-blue w3-margin-top" type="submit">Import</button>
+</form>
+
+<br>
+<div class="w3-container">
+  <a class="w3-button w3-blue" href="BmPortfolioExport?format=csv">Export portfolio (CSV)</a>
+  <a class="w3-button w3-blue" href="BmPortfolioExport?format=jsonl">Export portfolio (JSON Lines)</a>
+</div>
   
 <jsp:include page="../common/common_footer.jsp" />  
 
@@ -0,0 +1,50 @@
+package com.gan.wcare.servlet;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import javax.ejb.EJB;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.gan.wcare.common.JsonUtil;
+import com.gan.wcare.ejb.user.WarmUpEJB;
+
+
+//Liveness is always UP once deployed, readiness (503 until then) waits for WarmUpEJB, then for the JSPs to be compiled
+@WebServlet(name = "HealthServlet", urlPatterns = {"/health/live", "/health/ready"})
+public class HealthServlet extends HttpServlet {
+
+    @EJB
+    private WarmUpEJB warmUpEJB;
+
+    private final JspPrecompiler jspPrecompiler = new JspPrecompiler();
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        String status = "UP";
+        if (request.getServletPath().endsWith("/ready")) {
+            status = warmUpEJB.getStatus();
+            boolean ready = warmUpEJB.isReady();
+            if (ready && !jspPrecompiler.isDone()) {
+                //The first probe compiles them, the others see it still warming up
+                jspPrecompiler.runOnce(getServletContext(), "http://127.0.0.1:" + request.getLocalPort() + request.getContextPath());
+                ready = jspPrecompiler.isDone();
+                status = jspPrecompiler.getStatus();
+            }
+            if (!ready) {
+                response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            }
+        }
+
+        response.setContentType("application/json;charset=UTF-8");
+        response.setHeader("Cache-Control", "no-cache");
+        try (PrintWriter out = response.getWriter()) {
+            out.write("{\"status\":" + JsonUtil.quote(status) + "}");
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.gan.wcare.servlet;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.ServletContext;
+
+import com.gan.wcare.common.LogUtil;
+
+/**
+ * Compiles every JSP of wcareWeb once, with the JSP precompilation protocol : a request with
+ * jsp_precompile=true makes the container translate and compile the page without running it.
+ * The requests go to this node over HTTP. HealthServlet runs it on the first readiness probe after
+ * WarmUpEJB is ready and keeps reporting 503 until it is done, so no JSP is compiled on a user request
+ * whether or not prepareJSPs (ibm-web-ext.xml) has finished.
+ */
+public class JspPrecompiler {
+
+    private static final int TIMEOUT_IN_MILLISECONDS = 60000;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean done = false;
+    private volatile String status = "WARMING_UP (JSPs)";
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    /**
+     * Compiles the JSPs if no other call has started, on the calling thread, baseUrl ends with the context path
+     */
+    public void runOnce(ServletContext servletContext, String baseUrl) {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        List<String> jsps = findJsps(servletContext, "/");
+        int failed = 0;
+        for (String jsp : jsps) {
+            status = "WARMING_UP (JSP " + jsp + ")";
+            if (!precompile(baseUrl + jsp)) {
+                failed++;
+            }
+        }
+        //A page that does not compile fails on its own request too, the node does not wait for it
+        status = failed == 0 ? "UP" : "UP (" + failed + " JSPs not compiled)";
+        done = true;
+        LogUtil.log("JspPrecompiler : " + (jsps.size() - failed) + " of " + jsps.size() + " JSPs compiled in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    private boolean precompile(String url) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url + "?jsp_precompile=true").openConnection();
+            connection.setConnectTimeout(TIMEOUT_IN_MILLISECONDS);
+            connection.setReadTimeout(TIMEOUT_IN_MILLISECONDS);
+            int code = connection.getResponseCode();
+            InputStream in = code < 400 ? connection.getInputStream() : connection.getErrorStream();
+            if (in != null) {
+                in.close();
+            }
+            if (code >= 400) {
+                LogUtil.log("JspPrecompiler : " + url + " : HTTP " + code);
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            LogUtil.log("JspPrecompiler : " + url + " : " + e);
+            return false;
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    //Every JSP outside WEB-INF and META-INF, which cannot be requested
+    private List<String> findJsps(ServletContext servletContext, String directory) {
+        List<String> jsps = new ArrayList<>();
+        Set<String> paths = servletContext.getResourcePaths(directory);
+        if (paths == null) {
+            return jsps;
+        }
+        for (String path : paths) {
+            if (path.startsWith("/WEB-INF/") || path.startsWith("/META-INF/")) {
+                continue;
+            }
+            if (path.endsWith("/")) {
+                jsps.addAll(findJsps(servletContext, path));
+            } else if (path.endsWith(".jsp")) {
+                jsps.add(path);
+            }
+        }
+        Collections.sort(jsps);
+        return jsps;
+    }
+}
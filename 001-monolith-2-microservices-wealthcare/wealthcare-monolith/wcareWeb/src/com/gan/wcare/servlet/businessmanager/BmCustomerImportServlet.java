@@ -0,0 +1,62 @@
+package com.gan.wcare.servlet.businessmanager;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import javax.ejb.EJB;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.MultipartConfig;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.Part;
+
+import com.gan.wcare.ejb.model.ImportProgress;
+import com.gan.wcare.ejb.user.BulkImportEJB;
+
+
+//Accepts either a multipart upload (field "file") or the raw CSV as request body (text/csv)
+@WebServlet(name = "BmCustomerImportServlet", urlPatterns = {"/BmCustomerImport"})
+@MultipartConfig
+public class BmCustomerImportServlet extends HttpServlet {
+
+    @EJB
+    private BulkImportEJB bulkImportEJB;
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        response.setContentType("text/plain;charset=UTF-8");
+
+        String contentType = request.getContentType();
+        ImportProgress progress;
+        if (contentType != null && contentType.toLowerCase().startsWith("multipart/")) {
+            Part part = request.getPart("file");
+            if (part == null) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing file part \"file\"");
+                return;
+            }
+            try (Reader reader = new InputStreamReader(part.getInputStream(), StandardCharsets.UTF_8)) {
+                progress = bulkImportEJB.importCsv(reader);
+            }
+        } else {
+            progress = bulkImportEJB.importCsv(request.getReader());
+        }
+
+        try (PrintWriter out = response.getWriter()) {
+            out.println("Rows read           : " + progress.getRowsRead());
+            out.println("Customers created   : " + progress.getCustomersCreated());
+            out.println("Goals created       : " + progress.getGoalsCreated());
+            out.println("Investments created : " + progress.getInvestmentsCreated());
+            out.println("Duplicate emails    : " + progress.getDuplicates());
+            out.println("Invalid rows        : " + progress.getInvalidRows());
+            out.println("Rejected investments: " + progress.getRejectedInvestments() + " (investmentAmount without goalReference)");
+            out.println("Batches committed   : " + progress.getBatchesCommitted());
+            out.println("Elapsed (ms)        : " + progress.getElapsedTimeInMilliSeconds());
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.gan.wcare.servlet.businessmanager;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+
+import javax.ejb.EJB;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.gan.wcare.common.NumberUtil;
+import com.gan.wcare.ejb.analytics.InvestmentColumnStore;
+import com.gan.wcare.ejb.model.AnalyticsFilter;
+import com.gan.wcare.ejb.model.AnalyticsGroupTotal;
+import com.gan.wcare.ejb.user.InvestmentAnalyticsEJB;
+
+
+//groupBy=none|wealth_manager|vintage_year|customer, filters : wealthManagerId, customerId, fromYear, toYear, minInvestmentAmount
+@WebServlet(name = "BmInvestmentAnalyticsServlet", urlPatterns = {"/BmInvestmentAnalytics"})
+public class BmInvestmentAnalyticsServlet extends HttpServlet {
+
+    @EJB
+    private InvestmentAnalyticsEJB investmentAnalyticsEJB;
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        AnalyticsFilter filter = new AnalyticsFilter();
+        filter.setWealthManagerId(NumberUtil.stringToInt(request.getParameter("wealthManagerId")));
+        filter.setCustomerId(NumberUtil.stringToInt(request.getParameter("customerId")));
+        filter.setFromYear(NumberUtil.stringToInt(request.getParameter("fromYear")));
+        filter.setToYear(NumberUtil.stringToInt(request.getParameter("toYear")));
+        filter.setMinInvestmentAmount(NumberUtil.stringToDouble(request.getParameter("minInvestmentAmount")));
+
+        InvestmentColumnStore.GroupBy groupBy = InvestmentColumnStore.GroupBy.NONE;
+        String groupByParam = request.getParameter("groupBy");
+        if (groupByParam != null && !groupByParam.isEmpty()) {
+            try {
+                groupBy = InvestmentColumnStore.GroupBy.valueOf(groupByParam.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown groupBy : " + groupByParam);
+                return;
+            }
+        }
+
+        long start = System.nanoTime();
+        List<AnalyticsGroupTotal> totals = investmentAnalyticsEJB.aggregate(filter, groupBy);
+        long elapsedMicros = (System.nanoTime() - start) / 1000;
+
+        response.setContentType("application/json;charset=UTF-8");
+        try (PrintWriter out = response.getWriter()) {
+            out.print("{\"groupBy\":\"" + groupBy.name() + "\",\"elapsedMicros\":" + elapsedMicros + ",\"groups\":[");
+            for (int i = 0; i < totals.size(); i++) {
+                AnalyticsGroupTotal total = totals.get(i);
+                if (i > 0) {
+                    out.print(',');
+                }
+                out.print("{\"key\":" + total.getKey()
+                        + ",\"count\":" + total.getCount()
+                        + ",\"investmentAmount\":" + total.getInvestmentAmount()
+                        + ",\"stockAmount\":" + total.getStockAmount()
+                        + ",\"mutualFundAmount\":" + total.getMutualFundAmount()
+                        + ",\"fixedDepositAmount\":" + total.getFixedDepositAmount() + "}");
+            }
+            out.print("]}");
+        }
+    }
+
+}
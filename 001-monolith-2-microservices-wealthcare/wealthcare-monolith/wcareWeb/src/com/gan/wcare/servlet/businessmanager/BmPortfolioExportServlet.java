@@ -0,0 +1,43 @@
+package com.gan.wcare.servlet.businessmanager;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import javax.ejb.EJB;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.gan.wcare.ejb.user.PortfolioExportEJB;
+
+
+//format=csv (default) or format=jsonl
+@WebServlet(name = "BmPortfolioExportServlet", urlPatterns = {"/BmPortfolioExport"})
+public class BmPortfolioExportServlet extends HttpServlet {
+
+    @EJB
+    private PortfolioExportEJB portfolioExportEJB;
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        String format = request.getParameter("format");
+        boolean jsonLines = PortfolioExportEJB.FORMAT_JSON_LINES.equalsIgnoreCase(format);
+
+        if (jsonLines) {
+            response.setContentType("application/x-ndjson;charset=UTF-8");
+            response.setHeader("Content-Disposition", "attachment; filename=\"portfolio.jsonl\"");
+        } else {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader("Content-Disposition", "attachment; filename=\"portfolio.csv\"");
+        }
+        //Small buffer so the first page reaches the client as soon as it is written
+        response.setBufferSize(8192);
+
+        try (PrintWriter out = response.getWriter()) {
+            portfolioExportEJB.export(out, format);
+        }
+    }
+
+}